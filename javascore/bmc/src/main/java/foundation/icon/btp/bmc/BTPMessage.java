@@ -16,6 +16,7 @@
 
 package foundation.icon.btp.bmc;
 
+import foundation.icon.score.util.RLPSlice;
 import foundation.icon.score.util.StringUtil;
 import score.ByteArrayObjectWriter;
 import score.Context;
@@ -32,6 +33,11 @@ public class BTPMessage {
     private byte[] payload;
     private BigInteger nsn;
     private FeeInfo feeInfo;
+    //kept by fromBytes, so that the message is forwarded without decoding payload and re-encoding
+    private byte[] encodedBytes;
+    private RLPSlice encoded;
+    private RLPSlice encodedPayload;
+    private RLPSlice encodedFeeInfo;
 
     public String getSrc() {
         return src;
@@ -39,6 +45,7 @@ public class BTPMessage {
 
     public void setSrc(String src) {
         this.src = src;
+        this.encoded = null;
     }
 
     public String getDst() {
@@ -47,6 +54,7 @@ public class BTPMessage {
 
     public void setDst(String dst) {
         this.dst = dst;
+        this.encoded = null;
     }
 
     public String getSvc() {
@@ -55,6 +63,7 @@ public class BTPMessage {
 
     public void setSvc(String svc) {
         this.svc = svc;
+        this.encoded = null;
     }
 
     public BigInteger getSn() {
@@ -63,14 +72,20 @@ public class BTPMessage {
 
     public void setSn(BigInteger sn) {
         this.sn = sn;
+        this.encoded = null;
     }
 
     public byte[] getPayload() {
+        if (payload == null && encodedPayload != null) {
+            payload = encodedPayload.readByteArray();
+        }
         return payload;
     }
 
     public void setPayload(byte[] payload) {
         this.payload = payload;
+        this.encoded = null;
+        this.encodedPayload = null;
     }
 
     public BigInteger getNsn() {
@@ -79,6 +94,7 @@ public class BTPMessage {
 
     public void setNsn(BigInteger nsn) {
         this.nsn = nsn;
+        this.encoded = null;
     }
 
     public FeeInfo getFeeInfo() {
@@ -96,7 +112,7 @@ public class BTPMessage {
         sb.append(", dst=").append(dst);
         sb.append(", svc='").append(svc).append('\'');
         sb.append(", sn=").append(sn);
-        sb.append(", payload=").append(StringUtil.bytesToHex(payload));
+        sb.append(", payload=").append(StringUtil.bytesToHex(getPayload()));
         sb.append(", nsn=").append(nsn);
         sb.append(", feeInfo=").append(feeInfo);
         sb.append('}');
@@ -133,12 +149,51 @@ public class BTPMessage {
         writer.end();
     }
 
+    /**
+     * Decodes src, dst, svc, sn, nsn and FeeInfo, payload is decoded on demand
+     */
     public static BTPMessage fromBytes(byte[] bytes) {
-        ObjectReader reader = Context.newByteArrayObjectReader("RLPn", bytes);
-        return BTPMessage.readObject(reader);
+        RLPSlice slice = RLPSlice.of(bytes);
+        RLPSlice.Items items = slice.items();
+        BTPMessage obj = new BTPMessage();
+        obj.setSrc(items.next().readString());
+        obj.setDst(items.next().readString());
+        obj.setSvc(items.next().readString());
+        obj.setSn(items.next().readBigInteger());
+        RLPSlice payload = items.next();
+        if (payload.isList()) {
+            throw new IllegalStateException("not a byte string");
+        }
+        obj.setNsn(items.next().readBigInteger());
+        RLPSlice feeInfo = items.next();
+        if (!feeInfo.isNull()) {
+            obj.setFeeInfo(FeeInfo.fromBytes(feeInfo.toByteArray()));
+        }
+        obj.encodedBytes = bytes;
+        obj.encoded = slice;
+        obj.encodedPayload = payload;
+        obj.encodedFeeInfo = feeInfo;
+        return obj;
+    }
+
+    private static byte[] encodeFeeInfo(FeeInfo feeInfo) {
+        ByteArrayObjectWriter writer = Context.newByteArrayObjectWriter("RLPn");
+        writer.writeNullable(feeInfo);
+        return writer.toByteArray();
     }
 
+    /**
+     * If the message is decoded by {@link #fromBytes(byte[])}, returns the decoded bytes as it is,
+     * or with FeeInfo section replaced if only FeeInfo is changed.
+     */
     public byte[] toBytes() {
+        if (encoded != null) {
+            byte[] feeInfoBytes = encodeFeeInfo(feeInfo);
+            if (encodedFeeInfo.equalsBytes(feeInfoBytes)) {
+                return encodedBytes;
+            }
+            return encoded.replace(encodedFeeInfo, feeInfoBytes);
+        }
         ByteArrayObjectWriter writer = Context.newByteArrayObjectWriter("RLPn");
         BTPMessage.writeObject(writer, this);
         return writer.toByteArray();
@@ -22,6 +22,7 @@ import foundation.icon.btp.lib.BMVScoreInterface;
 import foundation.icon.btp.lib.BSHScoreInterface;
 import foundation.icon.btp.lib.BTPAddress;
 import foundation.icon.btp.lib.BTPException;
+import foundation.icon.btp.lib.FeeListenerScoreInterface;
 import foundation.icon.btp.lib.OwnerManager;
 import foundation.icon.btp.lib.OwnerManagerImpl;
 import foundation.icon.score.util.ArrayUtil;
@@ -49,6 +50,8 @@ public class BTPMessageCenter implements BMC, ICONSpecific, OwnerManager {
 
     public static final String INTERNAL_SERVICE = "bmc";
     public static final Address CHAIN_SCORE = Address.fromString("cx0000000000000000000000000000000000000000");
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int END_OF_PAGE = -1;
 
     public enum Internal {
         Init, Link, Unlink, Claim, Response;
@@ -73,14 +76,21 @@ public class BTPMessageCenter implements BMC, ICONSpecific, OwnerManager {
     //
     private final OwnerManager ownerManager = new OwnerManagerImpl("owners");
     private final BranchDB<String, BranchDB<Address, ArrayDB<byte[]>>> fragments = Context.newBranchDB("fragments", byte[].class);
+    private final BranchDB<String, DictDB<Address, FragmentInfo>> fragmentInfos = Context.newBranchDB("fragmentInfos", FragmentInfo.class);
 
     //
     private final Verifiers verifiers = new Verifiers("verifiers");
     private final Services services = new Services("services");
+    //services which handle the change of the fee table
+    private final ArrayDB<String> feeListeners = Context.newArrayDB("feeListeners", String.class);
     private final Routes routes = new Routes("routes");
     private final Links links = new Links("links");
+    //Map<ReachableNetwork, LinkNetwork>
+    private final Reachables reachables = new Reachables("reachables");
 
     private final BranchDB<String, ArrayDB<Address>> relays = Context.newBranchDB("relays", Address.class);
+    //Map<Link, Map<Relay, IndexOfRelays>>
+    private final BranchDB<String, DictDB<Address, Integer>> relayIndexes = Context.newBranchDB("relayIndexes", Integer.class);
     private final DictDB<String, BigInteger> btpLinkNetworkIds = Context.newDictDB("btpLinkNetworkIds", BigInteger.class);
     private final DictDB<BigInteger, BigInteger> btpLinkOffset = Context.newDictDB("btpLinkOffset", BigInteger.class);
     private final VarDB<BigInteger> networkSn = Context.newVarDB("networkSn", BigInteger.class);
@@ -91,12 +101,48 @@ public class BTPMessageCenter implements BMC, ICONSpecific, OwnerManager {
             = Context.newBranchDB("responseInfos", ResponseInfo.class);
     private final BranchDB<Address, DictDB<String, BigInteger>> rewards
             = Context.newBranchDB("rewards", BigInteger.class);
+    //networks of rewards, appended when the reward of the network is stored first
+    private final BranchDB<Address, ArrayDB<String>> rewardNetworks
+            = Context.newBranchDB("rewardNetworks", String.class);
     private final VarDB<Address> feeHandler = Context.newVarDB("feeHandler", Address.class);
     //Map<NetworkSn, BMCRequest>
     private final DictDB<BigInteger, BMCRequest> requests = Context.newDictDB("requests", BMCRequest.class);
 
+    //version of the storage layout, the migrations below the version are done already
+    private static final int STORAGE_VERSION = 1;
+    private final VarDB<Integer> storageVersion = Context.newVarDB("storageVersion", Integer.class);
+
+    //working set of handleRelayMessage, not null only while dispatching
+    private RelayBatch batch;
+
     public BTPMessageCenter(String _net) {
         this.btpAddr = new BTPAddress(BTPAddress.PROTOCOL_BTP, _net, Context.getAddress().toString());
+        if (storageVersion.getOrDefault(0) < STORAGE_VERSION) {
+            migrate();
+            storageVersion.set(STORAGE_VERSION);
+        }
+    }
+
+    /**
+     * Builds the indexes and sums for the values which are stored before them, runs once
+     */
+    private void migrate() {
+        //build index of reachable for the links which are added before the index
+        for (Link link : links.iterateValues()) {
+            for (BTPAddress reachable : link.getReachable()) {
+                putReachableIndex(link.getAddr().net(), reachable.net());
+            }
+        }
+        fees.ensureSums();
+        //build index of relays for the relays which are added before the index
+        for (Link link : links.iterateValues()) {
+            String _link = link.getAddr().toString();
+            ArrayDB<Address> arrayDB = relays.at(_link);
+            DictDB<Address, Integer> indexes = relayIndexes.at(_link);
+            for (int i = 0; i < arrayDB.size(); i++) {
+                indexes.set(arrayDB.get(i), i);
+            }
+        }
     }
 
     @External(readonly = true)
@@ -118,7 +164,7 @@ public class BTPMessageCenter implements BMC, ICONSpecific, OwnerManager {
         if (verifiers.containsKey(_net)) {
             throw BMCException.alreadyExistsBMV();
         }
-        verifiers.put(_net, _addr);
+        verifiers.set(_net, _addr);
     }
 
     @External
@@ -135,6 +181,33 @@ public class BTPMessageCenter implements BMC, ICONSpecific, OwnerManager {
         return verifiers.toMap();
     }
 
+    @External(readonly = true)
+    public Map getVerifiersPage(int _offset, int _limit) {
+        requireValidPage(_offset, _limit);
+        int end = verifiers.pageEnd(_offset, _limit);
+        return page("verifiers", verifiers.toMap(_offset, _limit), end, verifiers.size());
+    }
+
+    private static void requireValidPage(int offset, int limit) {
+        if (offset < 0) {
+            throw BMCException.unknown("invalid offset");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw BMCException.unknown("invalid limit, must be in [1, " + MAX_PAGE_SIZE + "]");
+        }
+    }
+
+    /**
+     * @param end  index after the last item of the page
+     * @param size total number of items
+     * @return dictionary with the items, and the offset of the next page as continuation cursor
+     */
+    private static Map<String, Object> page(String name, Object items, int end, int size) {
+        return Map.of(
+                name, items,
+                "next", end < size ? end : END_OF_PAGE);
+    }
+
     private BMVScoreInterface getVerifier(String _net) {
         if (!verifiers.containsKey(_net)) {
             throw BMCException.notExistsBMV();
@@ -152,7 +225,7 @@ public class BTPMessageCenter implements BMC, ICONSpecific, OwnerManager {
         if (services.containsKey(_svc) || INTERNAL_SERVICE.equals(_svc)) {
             throw BMCException.alreadyExistsBSH();
         }
-        services.put(_svc, _addr);
+        services.set(_svc, _addr);
     }
 
     @External
@@ -162,6 +235,10 @@ public class BTPMessageCenter implements BMC, ICONSpecific, OwnerManager {
             throw BMCException.notExistsBSH();
         }
         services.remove(_svc);
+        int i = getFeeListenerIndex(_svc);
+        if (i >= 0) {
+            removeFeeListener(i);
+        }
     }
 
     @External(readonly = true)
@@ -169,6 +246,13 @@ public class BTPMessageCenter implements BMC, ICONSpecific, OwnerManager {
         return services.toMap();
     }
 
+    @External(readonly = true)
+    public Map getServicesPage(int _offset, int _limit) {
+        requireValidPage(_offset, _limit);
+        int end = services.pageEnd(_offset, _limit);
+        return page("services", services.toMap(_offset, _limit), end, services.size());
+    }
+
     private BSHScoreInterface getService(String _svc) {
         Address address = services.get(_svc);
         if (address == null) {
@@ -190,8 +274,22 @@ public class BTPMessageCenter implements BMC, ICONSpecific, OwnerManager {
         }
     }
 
+    private Link loadLink(String net) {
+        if (batch == null) {
+            return links.get(net);
+        }
+        Link link = batch.getLink(net);
+        if (link == null) {
+            link = links.get(net);
+            if (link != null) {
+                batch.putLink(link);
+            }
+        }
+        return link;
+    }
+
     private Link getLink(String net) {
-        Link link = links.get(net);
+        Link link = loadLink(net);
         if (link == null) {
             throw BMCException.notExistsLink();
         } else {
@@ -200,7 +298,7 @@ public class BTPMessageCenter implements BMC, ICONSpecific, OwnerManager {
     }
 
     private Link getLink(BTPAddress address) {
-        Link link = links.get(address.net());
+        Link link = loadLink(address.net());
         if (link == null || !link.getAddr().equals(address)) {
             throw BMCException.notExistsLink();
         }
@@ -208,7 +306,11 @@ public class BTPMessageCenter implements BMC, ICONSpecific, OwnerManager {
     }
 
     private void putLink(Link link) {
-        links.put(link.getAddr().net(), link);
+        if (batch != null) {
+            batch.putLink(link);
+        } else {
+            links.set(link.getAddr().net(), link);
+        }
     }
 
     @External
@@ -250,16 +352,24 @@ public class BTPMessageCenter implements BMC, ICONSpecific, OwnerManager {
         if (routes.containsValue(net)) {
             throw BMCException.unknown("could not remove, referred by route");
         }
+        for (BTPAddress reachable : link.getReachable()) {
+            removeReachableIndex(net, reachable.net());
+        }
         ArrayDB<Address> arrayDB = relays.at(_link);
-        for(int i = 0; i < arrayDB.size(); i++ ) {
-            arrayDB.removeLast();
+        DictDB<Address, Integer> indexes = relayIndexes.at(_link);
+        while (arrayDB.size() > 0) {
+            Address relay = arrayDB.pop();
+            indexes.set(relay, null);
+            clearFragments(_link, relay);
         }
         BigInteger networkId = btpLinkNetworkIds.get(_link);
         if (networkId != null) {
             btpLinkNetworkIds.set(_link, null);
             btpLinkOffset.set(networkId, null);
         }
-        fees.remove(net);
+        if (fees.delete(net)) {
+            notifyFeeChanged(new String[]{net});
+        }
 
         propagateInternal(new BMCMessage(
                 Internal.Unlink.name(),
@@ -290,6 +400,18 @@ public class BTPMessageCenter implements BMC, ICONSpecific, OwnerManager {
         return links;
     }
 
+    @External(readonly = true)
+    public Map getLinksPage(int _offset, int _limit) {
+        requireValidPage(_offset, _limit);
+        int end = links.pageEnd(_offset, _limit);
+        List<Link> values = links.values(_offset, _limit);
+        String[] page = new String[values.size()];
+        for (int i = 0; i < page.length; i++) {
+            page[i] = values.get(i).getAddr().toString();
+        }
+        return page("links", page, end, links.size());
+    }
+
     @External
     public void addRoute(String _dst, String _link) {
         requireOwnerAccess();
@@ -301,7 +423,7 @@ public class BTPMessageCenter implements BMC, ICONSpecific, OwnerManager {
         }
 
         requireLink(_link);
-        routes.put(_dst, _link);
+        routes.set(_dst, _link);
     }
 
     @External
@@ -310,23 +432,43 @@ public class BTPMessageCenter implements BMC, ICONSpecific, OwnerManager {
         if (routes.remove(_dst) == null) {
             throw BMCException.unknown("not exists route");
         }
-        fees.remove(_dst);
+        if (fees.delete(_dst)) {
+            notifyFeeChanged(new String[]{_dst});
+        }
     }
 
     @External(readonly = true)
     public Map getRoutes() {
         Map<String, String> map = new HashMap<>();
-        for (Link link : links.values()) {
-            for(BTPAddress reachable : link.getReachable()) {
-                if (!map.containsKey(reachable.net())) {
-                    map.put(reachable.net(), link.getAddr().net());
-                }
-            }
-        }
+        map.putAll(reachables.toMap());
         map.putAll(routes.toMap());
         return map;
     }
 
+    /**
+     * Pages over the reachables followed by the routes,
+     * a route in later page overrides the reachable of the same destination as {@link #getRoutes()}
+     */
+    @External(readonly = true)
+    public Map getRoutesPage(int _offset, int _limit) {
+        requireValidPage(_offset, _limit);
+        int numOfReachables = reachables.size();
+        int size = numOfReachables + routes.size();
+        Map<String, String> map = new HashMap<>();
+        int end = _offset;
+        if (_offset < numOfReachables) {
+            end = reachables.pageEnd(_offset, _limit);
+            map.putAll(reachables.toMap(_offset, _limit));
+        }
+        if (end - _offset < _limit && end < size) {
+            int offset = end - numOfReachables;
+            int limit = _limit - (end - _offset);
+            end = numOfReachables + routes.pageEnd(offset, limit);
+            map.putAll(routes.toMap(offset, limit));
+        }
+        return page("routes", map, end, size);
+    }
+
     @External
     public void setFeeTable(String[] _dst, BigInteger[][] _value) {
         requireOwnerAccess();
@@ -351,9 +493,98 @@ public class BTPMessageCenter implements BMC, ICONSpecific, OwnerManager {
                 } else {
                     resolveNext(dstNet);
                 }
-                fees.put(dstNet, new FeeInfo(dstNet, values));
+                fees.set(dstNet, new FeeInfo(dstNet, values));
             } else {
-                fees.remove(dstNet);
+                fees.delete(dstNet);
+            }
+        }
+        notifyFeeChanged(_dst);
+    }
+
+    private int getFeeListenerIndex(String svc) {
+        for (int i = 0; i < feeListeners.size(); i++) {
+            if (feeListeners.get(i).equals(svc)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void removeFeeListener(int i) {
+        String last = feeListeners.pop();
+        if (i != feeListeners.size()) {
+            feeListeners.set(i, last);
+        }
+    }
+
+    @External
+    public void addFeeListener(String _svc) {
+        requireOwnerAccess();
+        if (!services.containsKey(_svc)) {
+            throw BMCException.notExistsBSH();
+        }
+        if (getFeeListenerIndex(_svc) >= 0) {
+            throw BMCException.unknown("already exists fee listener");
+        }
+        feeListeners.add(_svc);
+    }
+
+    @External
+    public void removeFeeListener(String _svc) {
+        requireOwnerAccess();
+        int i = getFeeListenerIndex(_svc);
+        if (i < 0) {
+            throw BMCException.unknown("not exists fee listener");
+        }
+        removeFeeListener(i);
+    }
+
+    @External(readonly = true)
+    public String[] getFeeListeners() {
+        String[] arr = new String[feeListeners.size()];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = feeListeners.get(i);
+        }
+        return arr;
+    }
+
+    /**
+     * Notifies the changed fees to the fee listeners.
+     * The failure of the listener reverts the change, so that the listener doesn't keep the stale fee.
+     */
+    private void notifyFeeChanged(String[] nets) {
+        int size = feeListeners.size();
+        if (size == 0) {
+            return;
+        }
+        int numOfChanged = 0;
+        for (String net : nets) {
+            if (fees.containsKey(net)) {
+                numOfChanged++;
+            }
+        }
+        String[] changedNets = new String[numOfChanged];
+        BigInteger[] forward = new BigInteger[numOfChanged];
+        BigInteger[] response = new BigInteger[numOfChanged];
+        String[] removedNets = new String[nets.length - numOfChanged];
+        int c = 0, r = 0;
+        for (String net : nets) {
+            if (fees.containsKey(net)) {
+                changedNets[c] = net;
+                forward[c] = fees.getSum(net, false);
+                response[c++] = fees.getSum(net, true);
+            } else {
+                removedNets[r++] = net;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            FeeListenerScoreInterface listener = new FeeListenerScoreInterface(
+                    services.get(feeListeners.get(i)));
+            if (changedNets.length > 0) {
+                listener.handleFeeChanged(changedNets, forward, response);
+            }
+            if (removedNets.length > 0) {
+                listener.handleFeeRemoved(removedNets);
             }
         }
     }
@@ -370,7 +601,17 @@ public class BTPMessageCenter implements BMC, ICONSpecific, OwnerManager {
     @External(readonly = true)
     public BigInteger getFee(String _to, boolean _response) {
         resolveNext(_to);
-        return ArrayUtil.sum(getFeeList(_to, _response));
+        return fees.getSum(_to, _response);
+    }
+
+    @External(readonly = true)
+    public BigInteger[] getFees(String[] _to, boolean _response) {
+        BigInteger[] ret = new BigInteger[_to.length];
+        for (int i = 0; i < _to.length; i++) {
+            resolveNext(_to[i]);
+            ret[i] = fees.getSum(_to[i], _response);
+        }
+        return ret;
     }
 
     @External(readonly = true)
@@ -412,12 +653,23 @@ public class BTPMessageCenter implements BMC, ICONSpecific, OwnerManager {
 
     private void addReward(Address addr, String net, BigInteger amount) {
         if (amount != null && amount.compareTo(BigInteger.ZERO) > 0) {
-            DictDB<String, BigInteger> rewardDictDB = rewards.at(addr);
-            rewardDictDB.set(net,
-                    amount.add(rewardDictDB.getOrDefault(net, BigInteger.ZERO)));
+            if (batch != null) {
+                batch.addReward(addr, net, amount);
+                return;
+            }
+            increaseReward(addr, rewards.at(addr), net, amount);
         }
     }
 
+    private void increaseReward(Address addr, DictDB<String, BigInteger> rewardDictDB, String net, BigInteger amount) {
+        BigInteger old = rewardDictDB.get(net);
+        if (old == null) {
+            rewardNetworks.at(addr).add(net);
+            old = BigInteger.ZERO;
+        }
+        rewardDictDB.set(net, old.add(amount));
+    }
+
     static Address toAddress(String s) {
         try {
             return Address.fromString(s);
@@ -464,6 +716,22 @@ public class BTPMessageCenter implements BMC, ICONSpecific, OwnerManager {
         return rewards.at(_addr).getOrDefault(_network, BigInteger.ZERO);
     }
 
+    /**
+     * The reward which is stored before the networks of reward are recorded,
+     * is returned only by {@link #getReward(String, Address)}
+     */
+    @External(readonly = true)
+    public Map getRewards(Address _addr) {
+        DictDB<String, BigInteger> rewardDictDB = rewards.at(_addr);
+        ArrayDB<String> networks = rewardNetworks.at(_addr);
+        Map<String, BigInteger> map = new HashMap<>();
+        for (int i = 0; i < networks.size(); i++) {
+            String net = networks.get(i);
+            map.put(net, rewardDictDB.getOrDefault(net, BigInteger.ZERO));
+        }
+        return map;
+    }
+
     @External
     public void setFeeHandler(Address _addr) {
         requireOwnerAccess();
@@ -475,36 +743,110 @@ public class BTPMessageCenter implements BMC, ICONSpecific, OwnerManager {
         return feeHandler.get();
     }
 
-    private BTPAddress resolveNextFromReachable(String _net) {
-        int size = links.size();
-        for (int i = 0; i < size; i++) {
-            Link link = links.getValue(i);
+    private Link resolveNextFromReachable(String _net) {
+        String linkNet = reachables.get(_net);
+        if (linkNet == null) {
+            return null;
+        }
+        return getLink(linkNet);
+    }
+
+    private void putReachableIndex(String linkNet, String reachableNet) {
+        if (!reachables.containsKey(reachableNet)) {
+            reachables.set(reachableNet, linkNet);
+        }
+    }
+
+    private void removeReachableIndex(String linkNet, String reachableNet) {
+        if (!linkNet.equals(reachables.get(reachableNet))) {
+            return;
+        }
+        reachables.remove(reachableNet);
+        //fallback to the other link which has same reachable network
+        for (String net : links.iterateKeys()) {
+            Link link = getLink(net);
             for (BTPAddress reachable : link.getReachable()) {
-                if (_net.equals(reachable.net())) {
-                    return link.getAddr();
+                if (reachableNet.equals(reachable.net())) {
+                    reachables.set(reachableNet, net);
+                    return;
                 }
             }
         }
-        return null;
     }
 
     private BTPAddress resolveNext(String _net) {
-        if (links.containsKey(_net)) {
-            return links.get(_net).getAddr();
+        return resolveNextLink(_net).getAddr();
+    }
+
+    private Link resolveNextLink(String _net) {
+        if (batch == null) {
+            return resolveNextLinkFromDB(_net);
+        }
+        String nextNet = batch.getRoute(_net);
+        if (nextNet != null) {
+            return getLink(nextNet);
+        }
+        Link next = resolveNextLinkFromDB(_net);
+        batch.putRoute(_net, next.getAddr().net());
+        return next;
+    }
+
+    private Link resolveNextLinkFromDB(String _net) {
+        Link link = loadLink(_net);
+        if (link != null) {
+            return link;
         }
 
         String nextNet = routes.get(_net);
         if (nextNet != null) {
-            return getLink(nextNet).getAddr();
+            return getLink(nextNet);
         }
 
-        BTPAddress next = resolveNextFromReachable(_net);
+        Link next = resolveNextFromReachable(_net);
         if (next != null) {
             return next;
         }
         throw BMCException.unreachable();
     }
 
+    private void flushLinks(RelayBatch batch) {
+        for (Link link : batch.getLinks()) {
+            if (link.isChanged()) {
+                links.set(link.getAddr().net(), link);
+            }
+        }
+    }
+
+    private void flushBatch(RelayBatch batch) {
+        flushLinks(batch);
+        for (Map.Entry<Address, Map<String, BigInteger>> entry : batch.getRewards().entrySet()) {
+            DictDB<String, BigInteger> rewardDictDB = rewards.at(entry.getKey());
+            for (Map.Entry<String, BigInteger> reward : entry.getValue().entrySet()) {
+                increaseReward(entry.getKey(), rewardDictDB, reward.getKey(), reward.getValue());
+            }
+        }
+        batch.clear();
+    }
+
+    /**
+     * Flushes the changed links and disables batching while calling the other contract which may call BMC.
+     * The links are loaded again after the call, since sendMessage of the contract changes them.
+     * The reward deltas are kept until the end of the relay message, they are added to the stored rewards.
+     */
+    private RelayBatch suspendBatch() {
+        RelayBatch suspended = batch;
+        if (suspended != null) {
+            flushLinks(suspended);
+            suspended.clearLinks();
+            batch = null;
+        }
+        return suspended;
+    }
+
+    private void resumeBatch(RelayBatch suspended) {
+        batch = suspended;
+    }
+
     @External
     public void handleRelayMessage(String _prev, String _msg) {
         byte[] msgBytes = Base64.getUrlDecoder().decode(_msg.getBytes());
@@ -512,6 +854,16 @@ public class BTPMessageCenter implements BMC, ICONSpecific, OwnerManager {
     }
 
     private void handleRelayMessage(String _prev, byte[] msgBytes) {
+        batch = new RelayBatch();
+        try {
+            dispatchRelayMessage(_prev, msgBytes);
+            flushBatch(batch);
+        } finally {
+            batch = null;
+        }
+    }
+
+    private void dispatchRelayMessage(String _prev, byte[] msgBytes) {
         BTPAddress prev = BTPAddress.valueOf(_prev);
         Link link = getLink(prev);
         BigInteger rxSeq = link.getRxSeq();
@@ -561,8 +913,9 @@ public class BTPMessageCenter implements BMC, ICONSpecific, OwnerManager {
                     handleMessage(msg);
                     emitBTPEvent(msg, null, Event.RECEIVE);
                 } else {
-                    BTPAddress next = resolveNext(msg.getDst());
-                    sendMessage(next, msg.toBytes());
+                    Link nextLink = resolveNextLink(msg.getDst());
+                    BTPAddress next = nextLink.getAddr();
+                    sendMessage(nextLink, msg.toBytes());
                     emitBTPEvent(msg, next, Event.ROUTE);
                 }
             } catch (BTPException e) {
@@ -609,7 +962,12 @@ public class BTPMessageCenter implements BMC, ICONSpecific, OwnerManager {
                     internalHandleBTPMessage(src, msg.getNsn(), payload);
                 } else {
                     BSHScoreInterface service = getService(svc);
-                    service.handleBTPMessage(src, svc, sn, payload);
+                    RelayBatch suspended = suspendBatch();
+                    try {
+                        service.handleBTPMessage(src, svc, sn, payload);
+                    } finally {
+                        resumeBatch(suspended);
+                    }
                 }
             } catch (Exception e) {
                 if (responseInfoDictDb != null) {
@@ -628,7 +986,12 @@ public class BTPMessageCenter implements BMC, ICONSpecific, OwnerManager {
                     internalHandleBTPError(src, msg.getNsn(), eCode, eMsg);
                 } else {
                     BSHScoreInterface service = getService(svc);
-                    service.handleBTPError(src, svc, sn, eCode, eMsg);
+                    RelayBatch suspended = suspendBatch();
+                    try {
+                        service.handleBTPError(src, svc, sn, eCode, eMsg);
+                    } finally {
+                        resumeBatch(suspended);
+                    }
                 }
             } catch (Exception e) {
                 throw BTPException.of(e, BTPException.Type.BSH);
@@ -681,14 +1044,25 @@ public class BTPMessageCenter implements BMC, ICONSpecific, OwnerManager {
             if (!list.contains(address)) {
                 list.add(address);
             }
+            putReachableIndex(net, address.net());
         }
+        link.setReachable(list);
         putLink(link);
+        if (batch != null) {
+            batch.clearRoutes();
+        }
     }
 
     private void removeReachable(String net, BTPAddress address) {
         Link link = getLink(net);
-        link.getReachable().remove(address);
+        List<BTPAddress> list = link.getReachable();
+        list.remove(address);
+        link.setReachable(list);
         putLink(link);
+        removeReachableIndex(net, address.net());
+        if (batch != null) {
+            batch.clearRoutes();
+        }
     }
 
     private void handleResponse(BigInteger nsn, long result) {
@@ -750,7 +1124,8 @@ public class BTPMessageCenter implements BMC, ICONSpecific, OwnerManager {
     }
 
     private BigInteger sendMessageWithFee(String _to, String _svc, BigInteger _sn, byte[] msg, boolean isResponse, boolean fillSnByNsn) {
-        BTPAddress next = resolveNext(_to);
+        Link nextLink = resolveNextLink(_to);
+        BTPAddress next = nextLink.getAddr();
         BTPMessage btpMsg = new BTPMessage();
         btpMsg.setSrc(btpAddr.net());
         btpMsg.setDst(_to);
@@ -776,7 +1151,9 @@ public class BTPMessageCenter implements BMC, ICONSpecific, OwnerManager {
                 _sn = btpMsg.getNsn();
                 btpMsg.setSn(_sn);
             }
-            BigInteger[] values = getFeeList(_to, _sn.compareTo(BigInteger.ZERO) > 0);
+            boolean response = _sn.compareTo(BigInteger.ZERO) > 0;
+            BigInteger[] values = getFeeList(_to, response);
+            // the list is decoded for the message, so it's summed in memory instead of reading the stored sum
             BigInteger remain = Context.getValue().subtract(ArrayUtil.sum(values));
             if (remain.compareTo(BigInteger.ZERO) < 0) {
                 logger.println("sendMessage", "not enough fee", remain);
@@ -786,7 +1163,7 @@ public class BTPMessageCenter implements BMC, ICONSpecific, OwnerManager {
             btpMsg.setFeeInfo(new FeeInfo(btpAddr.net(), values));
             event = Event.SEND;
         }
-        sendMessage(next, btpMsg.toBytes());
+        sendMessage(nextLink, btpMsg.toBytes());
         emitBTPEvent(btpMsg, next, event);
         return btpMsg.getNsn();
     }
@@ -838,21 +1215,24 @@ public class BTPMessageCenter implements BMC, ICONSpecific, OwnerManager {
     }
 
     private void sendMessage(BTPAddress next, byte[] serializedMsg) {
-        Link link = getLink(next);
-        link.setTxSeq(link.getTxSeq().add(BigInteger.ONE));
-        putLink(link);
+        sendMessage(getLink(next), serializedMsg);
+    }
+
+    private void sendMessage(Link link, byte[] serializedMsg) {
+        BTPAddress next = link.getAddr();
+        BigInteger txSeq = link.getTxSeq().add(BigInteger.ONE);
         BigInteger networkId = btpLinkNetworkIds.get(next.toString());
         if (networkId == null) {
-            Message(next.toString(), link.getTxSeq(), serializedMsg);
+            Message(next.toString(), txSeq, serializedMsg);
         } else {
             try {
                 Context.call(CHAIN_SCORE, "sendBTPMessage", networkId, serializedMsg);
             } catch (Exception e) {
-                link.setTxSeq(link.getTxSeq().subtract(BigInteger.ONE));
-                putLink(link);
                 throw BMCException.unknown("fail to sendBTPMessage :" + e);
             }
         }
+        link.setTxSeq(txSeq);
+        putLink(link);
     }
 
     private void sendInternalResponse(String net, BigInteger nsn) {
@@ -877,7 +1257,7 @@ public class BTPMessageCenter implements BMC, ICONSpecific, OwnerManager {
     private BTPAddress[] propagateInternal(byte[] payload) {
         BTPAddress[] addrs = new BTPAddress[links.size()];
         int i = 0;
-        for (Link link : links.values()) {
+        for (Link link : links.iterateValues()) {
             BTPAddress next = link.getAddr();
             addrs[i++] = next;
             sendInternal(next, payload);
@@ -912,56 +1292,61 @@ public class BTPMessageCenter implements BMC, ICONSpecific, OwnerManager {
             throw BMCException.unauthorized("not registered relay");
         }
         byte[] fragmentBytes = Base64.getUrlDecoder().decode(_msg.getBytes());
-        final int INDEX_LAST = 0;
-        final int INDEX_NEXT = 1;
-        final int INDEX_OFFSET = 2;
         ArrayDB<byte[]> fragments = this.fragments.at(_prev).at(caller);
+        DictDB<Address, FragmentInfo> fragmentInfos = this.fragmentInfos.at(_prev);
         if (_idx < 0) {
             int last = _idx * -1;
-            if (fragments.size() == 0) {
-                fragments.add(Integer.toString(last).getBytes());
-                fragments.add(Integer.toString(last - 1).getBytes());
-                fragments.add(fragmentBytes);
-            } else {
-                fragments.set(INDEX_LAST, Integer.toString(last).getBytes());
-                fragments.set(INDEX_NEXT, Integer.toString(last - 1).getBytes());
-                fragments.set(INDEX_OFFSET, fragmentBytes);
-            }
+            setFragment(fragments, 0, fragmentBytes);
+            fragmentInfos.set(caller, new FragmentInfo(last, last - 1, fragmentBytes.length));
         } else {
-            int next = Integer.parseInt(new String(fragments.get(INDEX_NEXT)));
-            if (next != _idx) {
+            FragmentInfo info = fragmentInfos.get(caller);
+            if (info == null || info.getNext() != _idx) {
                 throw BMCException.unknown("invalid _idx");
             }
-            int last = Integer.parseInt(new String(fragments.get(INDEX_LAST)));
             if (_idx == 0) {
-                int total = 0;
-                byte[][] bytesArr = new byte[last + 1][];
-                for (int i = 0; i < last; i++) {
-                    bytesArr[i] = fragments.get(i + INDEX_OFFSET);
-                    total += bytesArr[i].length;
-                }
-                bytesArr[last] = fragmentBytes;
-                total += fragmentBytes.length;
+                int total = info.getLength() + fragmentBytes.length;
                 byte[] msgBytes = new byte[total];
-                int pos = 0;
-                for (byte[] bytes : bytesArr) {
+                int pos = info.getLength();
+                System.arraycopy(fragmentBytes, 0, msgBytes, pos, fragmentBytes.length);
+                //remove stale fragments of the previous incomplete message
+                int last = info.getLast();
+                while (fragments.size() > last) {
+                    fragments.removeLast();
+                }
+                //fill from the end, removing consumed fragments
+                while (fragments.size() > 0) {
+                    byte[] bytes = fragments.pop();
+                    pos -= bytes.length;
                     System.arraycopy(bytes, 0, msgBytes, pos, bytes.length);
-                    pos += bytes.length;
                 }
+                fragmentInfos.set(caller, null);
                 logger.println("handleFragment", "handleRelayMessage", "fragments:", last + 1, "len:" + total);
                 handleRelayMessage(_prev, msgBytes);
             } else {
-                fragments.set(INDEX_NEXT, Integer.toString(_idx - 1).getBytes());
-                int INDEX_MSG = last - _idx + INDEX_OFFSET;
-                if (INDEX_MSG < fragments.size()) {
-                    fragments.set(INDEX_MSG, fragmentBytes);
-                } else {
-                    fragments.add(fragmentBytes);
-                }
+                setFragment(fragments, info.getLast() - _idx, fragmentBytes);
+                info.setNext(_idx - 1);
+                info.setLength(info.getLength() + fragmentBytes.length);
+                fragmentInfos.set(caller, info);
             }
         }
     }
 
+    private void clearFragments(String _link, Address relay) {
+        ArrayDB<byte[]> fragments = this.fragments.at(_link).at(relay);
+        while (fragments.size() > 0) {
+            fragments.removeLast();
+        }
+        fragmentInfos.at(_link).set(relay, null);
+    }
+
+    private void setFragment(ArrayDB<byte[]> fragments, int i, byte[] fragmentBytes) {
+        if (i < fragments.size()) {
+            fragments.set(i, fragmentBytes);
+        } else {
+            fragments.add(fragmentBytes);
+        }
+    }
+
     static boolean isInvalidSn(int snCompare, int nsnCompare) {
         return (nsnCompare == 0 ||
                 (nsnCompare > 0 && snCompare < 0) ||
@@ -1021,13 +1406,8 @@ public class BTPMessageCenter implements BMC, ICONSpecific, OwnerManager {
     }
 
     private int getRelayIndex(String _link, Address _addr) {
-        ArrayDB<Address> arrayDB = relays.at(_link);
-        for (int i = 0 ; i < arrayDB.size(); i++) {
-            if (arrayDB.get(i).equals(_addr)) {
-                return i;
-            }
-        }
-        return -1;
+        Integer i = relayIndexes.at(_link).get(_addr);
+        return i == null ? -1 : i;
     }
 
     @External
@@ -1037,27 +1417,28 @@ public class BTPMessageCenter implements BMC, ICONSpecific, OwnerManager {
         if (getRelayIndex(_link, _addr) >= 0) {
             throw BMCException.alreadyExistsBMR();
         }
-        relays.at(_link).add(_addr);
+        ArrayDB<Address> arrayDB = relays.at(_link);
+        arrayDB.add(_addr);
+        relayIndexes.at(_link).set(_addr, arrayDB.size() - 1);
     }
 
     @External
     public void removeRelay(String _link, Address _addr) {
         requireOwnerAccess();
         requireLink(BTPAddress.valueOf(_link));
-        ArrayDB<Address> arrayDB = relays.at(_link);
-        if (arrayDB.size() == 0) {
+        int i = getRelayIndex(_link, _addr);
+        if (i < 0) {
             throw BMCException.notExistsBMR();
         }
+        ArrayDB<Address> arrayDB = relays.at(_link);
+        DictDB<Address, Integer> indexes = relayIndexes.at(_link);
         Address last = arrayDB.pop();
-        if (!last.equals(_addr)) {
-            for (int i = 0 ; i < arrayDB.size(); i++) {
-                if (arrayDB.get(i).equals(_addr)) {
-                    arrayDB.set(i, last);
-                    return;
-                }
-            }
-            throw BMCException.notExistsBMR();
+        if (i != arrayDB.size()) {
+            arrayDB.set(i, last);
+            indexes.set(last, i);
         }
+        indexes.set(_addr, null);
+        clearFragments(_link, _addr);
     }
 
     @External(readonly = true)
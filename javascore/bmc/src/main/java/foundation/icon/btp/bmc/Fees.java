@@ -18,11 +18,89 @@ package foundation.icon.btp.bmc;
 
 import foundation.icon.score.data.EnumerableDictDB;
 import foundation.icon.score.util.Logger;
+import score.Context;
+import score.DictDB;
 
+import java.math.BigInteger;
+
+/**
+ * Stores sum of forward fees and sum of round-trip fees of {@link FeeInfo} when it's set,
+ * so that the fee to the destination is read without decoding and summing the fee list.
+ * It's for the fee queries, sendMessage decodes the list for the message and sums it in memory.
+ */
 public class Fees extends EnumerableDictDB<String, FeeInfo> {
     private static final Logger logger = Logger.getLogger(Fees.class);
+    private final DictDB<String, BigInteger> forwardSums;
+    private final DictDB<String, BigInteger> roundTripSums;
 
     public Fees(String id) {
         super(id, String.class, FeeInfo.class);
+        this.forwardSums = Context.newDictDB(concatId("forwardSum"), BigInteger.class);
+        this.roundTripSums = Context.newDictDB(concatId("roundTripSum"), BigInteger.class);
+    }
+
+    /**
+     * Stores the sums for the fees which are set before the sums
+     */
+    public void ensureSums() {
+        for (String net : iterateKeys()) {
+            if (roundTripSums.get(net) == null) {
+                putSums(net, get(net));
+            }
+        }
+    }
+
+    private void putSums(String net, FeeInfo feeInfo) {
+        BigInteger[] values = feeInfo.getValues();
+        BigInteger forward = BigInteger.ZERO;
+        BigInteger roundTrip = BigInteger.ZERO;
+        int hop = values.length / 2;
+        for (int i = 0; i < values.length; i++) {
+            if (i < hop) {
+                forward = forward.add(values[i]);
+            }
+            roundTrip = roundTrip.add(values[i]);
+        }
+        forwardSums.set(net, forward);
+        roundTripSums.set(net, roundTrip);
+    }
+
+    private void removeSums(String net) {
+        forwardSums.set(net, null);
+        roundTripSums.set(net, null);
+    }
+
+    /**
+     * @param net      network address of the destination
+     * @param response whether the fees of backward path are included
+     * @return sum of fees, zero if there is no fee for the destination
+     */
+    public BigInteger getSum(String net, boolean response) {
+        BigInteger sum = response ? roundTripSums.get(net) : forwardSums.get(net);
+        return sum == null ? BigInteger.ZERO : sum;
+    }
+
+    @Override
+    public FeeInfo put(String net, FeeInfo feeInfo) {
+        putSums(net, feeInfo);
+        return super.put(net, feeInfo);
+    }
+
+    @Override
+    public boolean set(String net, FeeInfo feeInfo) {
+        putSums(net, feeInfo);
+        return super.set(net, feeInfo);
+    }
+
+    @Override
+    public FeeInfo remove(String net) {
+        removeSums(net);
+        return super.remove(net);
+    }
+
+    @Override
+    public boolean delete(String net) {
+        removeSums(net);
+        return super.delete(net);
     }
 }
@@ -132,4 +132,30 @@ public interface ICONSpecific {
     @External(readonly = true)
     long getBTPLinkOffset(String _link);
 
+    /**
+     * Registers the service as the fee listener which handles the change of the fee table.
+     * Called by the operator to manage the BTP network.
+     *
+     * @param _svc String ( the name of the registered service which implements {@link foundation.icon.btp.lib.FeeListener} )
+     */
+    @External
+    void addFeeListener(String _svc);
+
+    /**
+     * Unregisters the fee listener.
+     * Called by the operator to manage the BTP network.
+     *
+     * @param _svc String ( the name of the service )
+     */
+    @External
+    void removeFeeListener(String _svc);
+
+    /**
+     * Get names of the services which are registered as the fee listener
+     *
+     * @return A list of the name of the service
+     */
+    @External(readonly = true)
+    String[] getFeeListeners();
+
 }
@@ -36,6 +36,11 @@ public class Link {
     //with suffix("reachable") ArrayDB<String>
     private List<BTPAddress> reachable;
 
+    //changes after loaded, not serialized
+    private boolean rxSeqChanged;
+    private boolean txSeqChanged;
+    private boolean reachableChanged;
+
     public BTPAddress getAddr() {
         return addr;
     }
@@ -50,6 +55,7 @@ public class Link {
 
     public void setRxSeq(BigInteger rxSeq) {
         this.rxSeq = rxSeq;
+        this.rxSeqChanged = true;
     }
 
     public BigInteger getTxSeq() {
@@ -58,6 +64,7 @@ public class Link {
 
     public void setTxSeq(BigInteger txSeq) {
         this.txSeq = txSeq;
+        this.txSeqChanged = true;
     }
 
     public List<BTPAddress> getReachable() {
@@ -66,6 +73,29 @@ public class Link {
 
     public void setReachable(List<BTPAddress> reachable) {
         this.reachable = reachable;
+        this.reachableChanged = true;
+    }
+
+    public boolean isRxSeqChanged() {
+        return rxSeqChanged;
+    }
+
+    public boolean isTxSeqChanged() {
+        return txSeqChanged;
+    }
+
+    public boolean isReachableChanged() {
+        return reachableChanged;
+    }
+
+    public boolean isChanged() {
+        return rxSeqChanged || txSeqChanged || reachableChanged;
+    }
+
+    public void resetChanged() {
+        rxSeqChanged = false;
+        txSeqChanged = false;
+        reachableChanged = false;
     }
 
     @Override
@@ -98,6 +128,7 @@ public class Link {
             reader.end();
         }
         reader.end();
+        obj.resetChanged();
         return obj;
     }
 
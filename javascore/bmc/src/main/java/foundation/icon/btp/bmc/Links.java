@@ -18,13 +18,86 @@ package foundation.icon.btp.bmc;
 
 import foundation.icon.score.data.EnumerableDictDB;
 import foundation.icon.score.util.Logger;
+import score.Context;
+import score.DictDB;
 
-import java.util.Map;
+import java.math.BigInteger;
 
+/**
+ * Stores rxSeq and txSeq of {@link Link} separately from the rest,
+ * so that increasing sequence doesn't re-serialize the reachable list.
+ * Only changed parts of {@link Link} are written by {@link #set(String, Link)}.
+ */
 public class Links extends EnumerableDictDB<String, Link> {
     private static final Logger logger = Logger.getLogger(Links.class);
+    private final DictDB<String, BigInteger> rxSeqs;
+    private final DictDB<String, BigInteger> txSeqs;
 
     public Links(String id) {
         super(id, String.class, Link.class);
+        this.rxSeqs = Context.newDictDB(concatId("rxSeq"), BigInteger.class);
+        this.txSeqs = Context.newDictDB(concatId("txSeq"), BigInteger.class);
+    }
+
+    @Override
+    public Link getValue(Integer i) {
+        Link link = super.getValue(i);
+        if (link != null) {
+            String net = link.getAddr().net();
+            //sequences in the link is used, if it's stored before separation
+            BigInteger rxSeq = rxSeqs.get(net);
+            if (rxSeq != null) {
+                link.setRxSeq(rxSeq);
+            }
+            BigInteger txSeq = txSeqs.get(net);
+            if (txSeq != null) {
+                link.setTxSeq(txSeq);
+            }
+            link.resetChanged();
+        }
+        return link;
+    }
+
+    @Override
+    public Link put(String net, Link link) {
+        Link old = get(net);
+        set(net, link);
+        return old;
+    }
+
+    @Override
+    public boolean set(String net, Link link) {
+        boolean added = false;
+        if (link.isReachableChanged()) {
+            added = super.set(net, link);
+        }
+        if (link.isRxSeqChanged()) {
+            rxSeqs.set(net, link.getRxSeq());
+        }
+        if (link.isTxSeqChanged()) {
+            txSeqs.set(net, link.getTxSeq());
+        }
+        link.resetChanged();
+        return added;
+    }
+
+    @Override
+    public Link remove(String net) {
+        Link old = super.remove(net);
+        if (old != null) {
+            rxSeqs.set(net, null);
+            txSeqs.set(net, null);
+        }
+        return old;
+    }
+
+    @Override
+    public boolean delete(String net) {
+        boolean removed = super.delete(net);
+        if (removed) {
+            rxSeqs.set(net, null);
+            txSeqs.set(net, null);
+        }
+        return removed;
     }
 }
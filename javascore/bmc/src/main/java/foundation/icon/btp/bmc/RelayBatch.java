@@ -0,0 +1,87 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.btp.bmc;
+
+import score.Address;
+import scorex.util.HashMap;
+
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Working set of the BTPMessages dispatched by one relay message.
+ * Links, reward deltas and resolved routes are kept in memory while dispatching,
+ * and each touched DB key is written once by {@link BTPMessageCenter} on flush.
+ * While calling BSH, only the links are flushed and reloaded after the call.
+ */
+public class RelayBatch {
+    //Map<LinkNetwork, Link>
+    private final Map<String, Link> links = new HashMap<>();
+    //Map<Address, Map<Network, Amount>>
+    private final Map<Address, Map<String, BigInteger>> rewards = new HashMap<>();
+    //Map<DestinationNetwork, NextLinkNetwork>
+    private final Map<String, String> routes = new HashMap<>();
+
+    public Link getLink(String net) {
+        return links.get(net);
+    }
+
+    public void putLink(Link link) {
+        links.put(link.getAddr().net(), link);
+    }
+
+    public Collection<Link> getLinks() {
+        return links.values();
+    }
+
+    public void addReward(Address addr, String net, BigInteger amount) {
+        Map<String, BigInteger> map = rewards.get(addr);
+        if (map == null) {
+            map = new HashMap<>();
+            rewards.put(addr, map);
+        }
+        BigInteger old = map.get(net);
+        map.put(net, old == null ? amount : old.add(amount));
+    }
+
+    public Map<Address, Map<String, BigInteger>> getRewards() {
+        return rewards;
+    }
+
+    public String getRoute(String net) {
+        return routes.get(net);
+    }
+
+    public void putRoute(String net, String nextNet) {
+        routes.put(net, nextNet);
+    }
+
+    public void clearRoutes() {
+        routes.clear();
+    }
+
+    public void clearLinks() {
+        links.clear();
+    }
+
+    public void clear() {
+        links.clear();
+        rewards.clear();
+        routes.clear();
+    }
+}
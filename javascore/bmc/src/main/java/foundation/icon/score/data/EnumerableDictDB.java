@@ -23,9 +23,17 @@ import score.DictDB;
 import scorex.util.ArrayList;
 
 import java.math.BigInteger;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
+/**
+ * DictDB which is able to enumerate the entries by index.
+ * Entries are stored as key to index, index to key and array of values,
+ * so that each of lookup, update and removal costs constant number of reads and writes.
+ * Keys of the type which is not supported by DictDB are encoded by {@link #encodeKey(Object)}.
+ */
 public class EnumerableDictDB<K, V> {
     protected final String id;
     private final DictDB<Object, Integer> indexes;
@@ -53,16 +61,21 @@ public class EnumerableDictDB<K, V> {
         return values.size();
     }
 
-    private Object ensureKeyType(K key) {
+    /**
+     * Encodes the key to the key of index DictDB.
+     * Override to give the compact encoding for the key type which is not supported by DictDB,
+     * the default is {@link Object#toString()}.
+     */
+    protected Object encodeKey(K key) {
         return supportedKeyType ? key : key.toString();
     }
 
     private Integer getIndex(K key) {
-        return indexes.get(ensureKeyType(key));
+        return indexes.get(encodeKey(key));
     }
 
     private void setIndex(K key, Integer i) {
-        indexes.set(ensureKeyType(key), i);
+        indexes.set(encodeKey(key), i);
     }
 
     public K getKey(Integer i) {
@@ -73,31 +86,16 @@ public class EnumerableDictDB<K, V> {
         keys.set(i, key);
     }
 
-    @SuppressWarnings("unchecked")
     public V getValue(Integer i) {
-        return (i != null) ? (V) values.get(i) : null;
-    }
-
-    private V putValue(Integer i, V value) {
-        V old = getValue(i);
-        if (old == null) {
-            values.add(value);
-        } else {
-            values.set(i, value);
-        }
-        return old;
+        return readValue(i);
     }
 
+    /**
+     * Reads the stored value only, it's not affected by overridden {@link #getValue(Integer)}
+     */
     @SuppressWarnings("unchecked")
-    private V removeValue(Integer i) {
-        V old = getValue(i);
-        if (old != null) {
-            V last = (V) values.pop();
-            if (i != values.size()) {
-                values.set(i, last);
-            }
-        }
-        return old;
+    private V readValue(Integer i) {
+        return (i != null) ? (V) values.get(i) : null;
     }
 
     public boolean containsKey(K key) {
@@ -115,47 +113,82 @@ public class EnumerableDictDB<K, V> {
     }
 
     public V get(K key) {
-        Integer i = getIndex(key);
-        V value =  getValue(i);
-        return value;
+        return getValue(getIndex(key));
     }
 
     public V put(K key, V value) {
         Integer i = getIndex(key);
-        V old = putValue(i, value);
-        if (old == null) {
-            i = values.size() - 1;
+        V old = readValue(i);
+        setAt(i, key, value);
+        return old;
+    }
+
+    /**
+     * Same as {@link #put(Object, Object)} without reading the old value.
+     * If the key exists, only the value is written in place.
+     *
+     * @return true if the key is added
+     */
+    public boolean set(K key, V value) {
+        Integer i = getIndex(key);
+        setAt(i, key, value);
+        return i == null;
+    }
+
+    private void setAt(Integer i, K key, V value) {
+        if (i != null) {
+            values.set(i, value);
+        } else {
+            i = values.size();
+            values.add(value);
             setIndex(key, i);
             setKey(i, key);
         }
-        return old;
     }
 
     public V remove(K key) {
         Integer i = getIndex(key);
-        V old = removeValue(i);
-        if (old != null) {
-            setIndex(key, null);
-            Integer lastIdx = values.size();
-            if (i.equals(lastIdx)) {
-                //remove lastKey
-                setKey(i, null);
-            } else {
-                //update lastKey
-                K lastKey = getKey(lastIdx);
-                setIndex(lastKey, i);
-                setKey(i, lastKey);
-            }
-        }
+        V old = readValue(i);
+        removeAt(i, key);
         return old;
     }
 
+    /**
+     * Same as {@link #remove(Object)} without reading the removed value
+     *
+     * @return true if the key is removed
+     */
+    public boolean delete(K key) {
+        Integer i = getIndex(key);
+        removeAt(i, key);
+        return i != null;
+    }
+
+    /**
+     * Moves the last entry to the index of the removed entry
+     */
+    private void removeAt(Integer i, K key) {
+        if (i == null) {
+            return;
+        }
+        Object last = values.pop();
+        int lastIdx = values.size();
+        setIndex(key, null);
+        if (i != lastIdx) {
+            values.set(i, last);
+            K lastKey = getKey(lastIdx);
+            setIndex(lastKey, i);
+            setKey(i, lastKey);
+        }
+        setKey(lastIdx, null);
+    }
+
     public void clear() {
         int size = size();
         for (int i = 0; i < size; i++) {
             K key = keys.get(i);
             keys.set(i, null);
-            indexes.set(ensureKeyType(key), null);
+            setIndex(key, null);
             values.removeLast();
         }
     }
@@ -173,7 +206,7 @@ public class EnumerableDictDB<K, V> {
         ArrayList<Object> keySet = new ArrayList<>();
         int size = size();
         for (int i = 0; i < size; i++) {
-            keySet.add(ensureKeyType(getKey(i)));
+            keySet.add(encodeKey(getKey(i)));
         }
         return keySet;
     }
@@ -187,6 +220,62 @@ public class EnumerableDictDB<K, V> {
         return values;
     }
 
+    /**
+     * Iterates keys without copying, each key is read when it's requested.
+     * The entries must not be removed while iterating.
+     */
+    public Iterable<K> iterateKeys() {
+        return new Iterable<>() {
+            @Override
+            public Iterator<K> iterator() {
+                return new IndexIterator<>() {
+                    @Override
+                    K read(int i) {
+                        return getKey(i);
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Iterates values without copying, each value is read when it's requested.
+     * The entries must not be removed while iterating.
+     */
+    public Iterable<V> iterateValues() {
+        return new Iterable<>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new IndexIterator<>() {
+                    @Override
+                    V read(int i) {
+                        return getValue(i);
+                    }
+                };
+            }
+        };
+    }
+
+    private abstract class IndexIterator<T> implements Iterator<T> {
+        private final int size = size();
+        private int next;
+
+        abstract T read(int i);
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public T next() {
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            return read(next++);
+        }
+    }
+
     @SuppressWarnings({"unchecked", "rawtypes"})
     public Map<K, V> toMap() {
         int size = size();
@@ -197,6 +286,55 @@ public class EnumerableDictDB<K, V> {
         return Map.ofEntries(entries);
     }
 
+    /**
+     * @return end index of the page which starts at offset, the page is empty if offset is out of range
+     */
+    public int pageEnd(int offset, int limit) {
+        int size = size();
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("negative offset or limit");
+        }
+        if (offset >= size) {
+            return offset;
+        }
+        return limit < size - offset ? offset + limit : size;
+    }
+
+    public List<K> keySet(int offset, int limit) {
+        ArrayList<K> keySet = new ArrayList<>();
+        int end = pageEnd(offset, limit);
+        for (int i = offset; i < end; i++) {
+            keySet.add(getKey(i));
+        }
+        return keySet;
+    }
+
+    public List<V> values(int offset, int limit) {
+        ArrayList<V> values = new ArrayList<>();
+        int end = pageEnd(offset, limit);
+        for (int i = offset; i < end; i++) {
+            values.add(getValue(i));
+        }
+        return values;
+    }
+
+    /**
+     * Reads only the entries in the page, so that the cost does not depend on the size
+     *
+     * @param offset index of the first entry
+     * @param limit  maximum number of entries
+     * @return entries of which index is in [offset, offset + limit)
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Map<K, V> toMap(int offset, int limit) {
+        int end = pageEnd(offset, limit);
+        Map.Entry[] entries = new Map.Entry[end - offset];
+        for (int i = offset; i < end; i++) {
+            entries[i - offset] = Map.entry(getKey(i), getValue(i));
+        }
+        return Map.ofEntries(entries);
+    }
+
     public Map<String, V> toMapWithKeyToString() {
         int size = size();
         Map.Entry[] entries = new Map.Entry[size];
@@ -107,6 +107,20 @@ public class BMRManagementTest implements BMCIntegrationTest {
         removeRelay(link, address);
     }
 
+    @Test
+    void removeRelayShouldKeepOthers() {
+        Address other = ScoreIntegrationTest.Faker.address(Address.Type.EOA);
+        addRelay(link, address);
+        addRelay(link, other);
+
+        removeRelay(link, address);
+        assertTrue(isExistsRelay(link, other));
+
+        addRelay(link, address);
+        removeRelay(link, other);
+        assertTrue(isExistsRelay(link, address));
+    }
+
     @Test
     void removeRelayShouldRevertNotExists() {
         AssertBMCException.assertNotExistsBMR(() ->
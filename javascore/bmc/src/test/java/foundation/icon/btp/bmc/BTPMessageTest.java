@@ -0,0 +1,120 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.btp.bmc;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BTPMessageTest {
+    static final String NET = "0x1.icon";
+
+    static BTPMessage message(byte[] payload, FeeInfo feeInfo) {
+        BTPMessage msg = new BTPMessage();
+        msg.setSrc(NET);
+        msg.setDst("0x2.icon");
+        msg.setSvc("svc");
+        msg.setSn(BigInteger.ONE);
+        msg.setPayload(payload);
+        msg.setNsn(BigInteger.TWO);
+        msg.setFeeInfo(feeInfo);
+        return msg;
+    }
+
+    static FeeInfo feeInfo(int size) {
+        BigInteger[] values = new BigInteger[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = BigInteger.valueOf(1000 + i);
+        }
+        return new FeeInfo(NET, values);
+    }
+
+    /**
+     * @return encoding of the message with given FeeInfo by writeObject
+     */
+    static byte[] encode(BTPMessage msg, FeeInfo feeInfo) {
+        return message(msg.getPayload(), feeInfo).toBytes();
+    }
+
+    static void assertSpliced(byte[] bytes, FeeInfo feeInfo) {
+        BTPMessage msg = BTPMessage.fromBytes(bytes);
+        msg.setFeeInfo(feeInfo);
+        assertArrayEquals(encode(msg, feeInfo), msg.toBytes());
+    }
+
+    @Test
+    void unchangedFeeInfoShouldReturnSameBytes() {
+        for (FeeInfo feeInfo : new FeeInfo[]{null, feeInfo(0), feeInfo(3)}) {
+            byte[] bytes = message(new byte[]{1, 2, 3}, feeInfo).toBytes();
+            BTPMessage msg = BTPMessage.fromBytes(bytes);
+            assertSame(bytes, msg.toBytes());
+            // same value but another instance
+            msg.setFeeInfo(feeInfo == null ? null : new FeeInfo(NET, feeInfo.getValues().clone()));
+            assertSame(bytes, msg.toBytes());
+        }
+    }
+
+    @Test
+    void modifiedFeeInfoShouldBeSameAsWriteObject() {
+        byte[] bytes = message(new byte[]{1, 2, 3}, feeInfo(3)).toBytes();
+        assertSpliced(bytes, feeInfo(2));
+        assertSpliced(bytes, feeInfo(4));
+        assertSpliced(bytes, null);
+
+        // values are modified in place as BMC does while routing
+        BTPMessage msg = BTPMessage.fromBytes(bytes);
+        BigInteger[] values = msg.getFeeInfo().getValues();
+        BigInteger[] next = new BigInteger[values.length - 1];
+        System.arraycopy(values, 1, next, 0, next.length);
+        msg.getFeeInfo().setValues(next);
+        assertArrayEquals(encode(msg, new FeeInfo(NET, next)), msg.toBytes());
+
+        bytes = message(new byte[]{1, 2, 3}, null).toBytes();
+        assertSpliced(bytes, feeInfo(0));
+        assertSpliced(bytes, feeInfo(3));
+    }
+
+    @Test
+    void headerOfListShouldBeChangedBySize() {
+        // content of the message is shorter than 56 bytes without FeeInfo
+        byte[] shortForm = message(new byte[]{1}, null).toBytes();
+        assertTrue(shortForm.length <= 56);
+        FeeInfo large = feeInfo(10);
+        assertTrue(encode(BTPMessage.fromBytes(shortForm), large).length > 57);
+        assertSpliced(shortForm, large);
+
+        byte[] longForm = message(new byte[]{1}, large).toBytes();
+        assertSpliced(longForm, null);
+        assertSpliced(longForm, feeInfo(1));
+
+        // length of the content needs two bytes
+        byte[] twoBytesLength = message(new byte[300], large).toBytes();
+        assertSpliced(twoBytesLength, null);
+        assertSpliced(twoBytesLength, feeInfo(20));
+    }
+
+    @Test
+    void payloadShouldBeDecodedOnDemand() {
+        byte[] payload = new byte[]{1, 2, 3};
+        BTPMessage msg = BTPMessage.fromBytes(message(payload, feeInfo(1)).toBytes());
+        assertArrayEquals(payload, msg.getPayload());
+        assertEquals(NET, msg.getSrc());
+        assertEquals(BigInteger.TWO, msg.getNsn());
+    }
+}
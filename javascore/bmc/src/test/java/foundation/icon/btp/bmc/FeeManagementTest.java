@@ -19,6 +19,7 @@ package foundation.icon.btp.bmc;
 import foundation.icon.btp.lib.BTPAddress;
 import foundation.icon.btp.test.BTPIntegrationTest;
 import foundation.icon.btp.test.MockBMVIntegrationTest;
+import foundation.icon.btp.test.MockBSHIntegrationTest;
 import foundation.icon.jsonrpc.Address;
 import foundation.icon.score.test.ScoreIntegrationTest;
 import foundation.icon.score.util.ArrayUtil;
@@ -33,6 +34,8 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class FeeManagementTest implements BMCIntegrationTest {
     static BTPAddress link = BTPIntegrationTest.Faker.btpLink();
@@ -151,4 +154,54 @@ public class FeeManagementTest implements BMCIntegrationTest {
         assertEquals(ArrayUtil.sum(forward(reachableFee.getValues())), bmc.getFee(reachable.net(), false));
         assertEquals(ArrayUtil.sum(reachableFee.getValues()), bmc.getFee(reachable.net(), true));
     }
+
+    static String addFeeListener() {
+        String svc = BTPIntegrationTest.Faker.btpService();
+        BSHManagementTest.addService(svc, MockBSHIntegrationTest.mockBSH._address());
+        iconSpecific.addFeeListener(svc);
+        assertTrue(Arrays.asList(iconSpecific.getFeeListeners()).contains(svc));
+        return svc;
+    }
+
+    @Test
+    void setFeeTableShouldNotifyFeeListener() {
+        String svc = addFeeListener();
+        try {
+            bmc.setFeeTable(MockBSHIntegrationTest.handleFeeChangedEvent((el) -> {
+                        assertEquals(link.net(), el.get_net());
+                        assertEquals(ArrayUtil.sum(forward(linkFee.getValues())), el.get_forward());
+                        assertEquals(ArrayUtil.sum(linkFee.getValues()), el.get_response());
+                    }),
+                    new String[]{link.net()}, new BigInteger[][]{linkFee.getValues()});
+
+            bmc.setFeeTable(MockBSHIntegrationTest.handleFeeRemovedEvent((el) ->
+                            assertEquals(link.net(), el.get_net())),
+                    new String[]{link.net()}, new BigInteger[][]{new BigInteger[]{}});
+        } finally {
+            BSHManagementTest.clearService(svc);
+        }
+    }
+
+    @Test
+    void removeServiceShouldRemoveFeeListener() {
+        String svc = addFeeListener();
+        AssertBMCException.assertUnknown(() -> iconSpecific.addFeeListener(svc));
+        BSHManagementTest.removeService(svc);
+        assertFalse(Arrays.asList(iconSpecific.getFeeListeners()).contains(svc));
+        AssertBMCException.assertUnknown(() -> iconSpecific.removeFeeListener(svc));
+        AssertBMCException.assertNotExistsBSH(() -> iconSpecific.addFeeListener(svc));
+    }
+
+    @Test
+    void getFeesShouldReturnsSameAsGetFee() {
+        setFeeTable(linkFee, reachableFee);
+        String[] nets = new String[]{link.net(), reachable.net()};
+        for (boolean response : new boolean[]{false, true}) {
+            BigInteger[] fees = bmc.getFees(nets, response);
+            assertEquals(nets.length, fees.length);
+            for (int i = 0; i < nets.length; i++) {
+                assertEquals(bmc.getFee(nets[i], response), fees[i]);
+            }
+        }
+    }
 }
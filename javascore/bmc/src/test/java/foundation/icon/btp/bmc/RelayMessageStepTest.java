@@ -0,0 +1,181 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.btp.bmc;
+
+import foundation.icon.btp.lib.BTPAddress;
+import foundation.icon.btp.test.MockBMVIntegrationTest;
+import foundation.icon.btp.test.MockBSHIntegrationTest;
+import foundation.icon.jsonrpc.Address;
+import foundation.icon.score.test.ScoreIntegrationTest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RelayMessageStepTest implements BMCIntegrationTest {
+    static BTPAddress link = Faker.btpLink();
+    static BTPAddress secondLink = Faker.btpLink();
+    static String svc = MockBSHIntegrationTest.SERVICE;
+    static Address relay = bmc._wallet().getAddress();
+    static int[] batchSizes = new int[]{1, 10, 100, 500};
+    static int compareSize = 10;
+
+    @BeforeAll
+    static void beforeAll() {
+        System.out.println("RelayMessageStepTest:beforeAll start");
+        BMVManagementTest.addVerifier(link.net(), MockBMVIntegrationTest.mockBMV._address());
+        LinkManagementTest.addLink(link.toString());
+        BMRManagementTest.addRelay(link.toString(), relay);
+
+        BMVManagementTest.addVerifier(secondLink.net(), MockBMVIntegrationTest.mockBMV._address());
+        LinkManagementTest.addLink(secondLink.toString());
+        BMRManagementTest.addRelay(secondLink.toString(), relay);
+
+        BSHManagementTest.clearService(svc);
+        BSHManagementTest.addService(svc, MockBSHIntegrationTest.mockBSH._address());
+        System.out.println("RelayMessageStepTest:beforeAll end");
+    }
+
+    @AfterAll
+    static void afterAll() {
+        System.out.println("RelayMessageStepTest:afterAll start");
+        BSHManagementTest.clearService(svc);
+
+        BMRManagementTest.clearRelay(link.toString(), relay);
+        LinkManagementTest.clearLink(link.toString());
+        BMVManagementTest.clearVerifier(link.net());
+
+        BMRManagementTest.clearRelay(secondLink.toString(), relay);
+        LinkManagementTest.clearLink(secondLink.toString());
+        BMVManagementTest.clearVerifier(secondLink.net());
+        System.out.println("RelayMessageStepTest:afterAll end");
+    }
+
+    static BTPMessage[] routeMessages(int size) {
+        return messages(size, secondLink.net(), new BigInteger[]{BigInteger.ONE, BigInteger.ONE});
+    }
+
+    static BTPMessage[] bshMessages(int size) {
+        return messages(size, btpAddress.net(), new BigInteger[]{BigInteger.ONE});
+    }
+
+    static BTPMessage[] noFeeMessages(int size, String dst) {
+        return messages(size, dst, new BigInteger[]{});
+    }
+
+    static BTPMessage[] messages(int size, String dst, BigInteger[] fees) {
+        BTPMessage[] msgs = new BTPMessage[size];
+        for (int i = 0; i < size; i++) {
+            BTPMessage msg = new BTPMessage();
+            msg.setSrc(link.net());
+            msg.setDst(dst);
+            msg.setSvc(svc);
+            msg.setSn(BigInteger.ZERO);
+            msg.setPayload(ScoreIntegrationTest.Faker.bytes(32));
+            msg.setNsn(BigInteger.valueOf(i + 1));
+            msg.setFeeInfo(new FeeInfo(link.net(), fees));
+            msgs[i] = msg;
+        }
+        return msgs;
+    }
+
+    BigInteger handleRelayMessage(int size) {
+        return handleRelayMessage(routeMessages(size));
+    }
+
+    BigInteger handleRelayMessage(BTPMessage[] msgs) {
+        BigInteger rxSeq = bmc.getStatus(link.toString()).getRx_seq();
+        BigInteger reward = bmc.getReward(link.net(), relay);
+        List<BigInteger> stepUsed = new ArrayList<>();
+        bmc.handleRelayMessage(
+                (txr) -> stepUsed.add(txr.getStepUsed()),
+                link.toString(),
+                MessageTest.mockRelayMessage(msgs).toBase64String());
+        assertEquals(rxSeq.add(BigInteger.valueOf(msgs.length)),
+                bmc.getStatus(link.toString()).getRx_seq());
+        //the relay takes the first fee of each message
+        int rewarded = msgs[0].getFeeInfo().getValues().length > 0 ? msgs.length : 0;
+        assertEquals(reward.add(BigInteger.valueOf(rewarded)),
+                bmc.getReward(link.net(), relay));
+        return stepUsed.get(0);
+    }
+
+    /**
+     * @return step used by sending the messages one by one, minus step used by sending them in a relay message
+     */
+    BigInteger savedByRelayMessage(BTPMessage[] msgs) {
+        BigInteger separated = BigInteger.ZERO;
+        for (BTPMessage msg : msgs) {
+            separated = separated.add(handleRelayMessage(new BTPMessage[]{msg}));
+        }
+        BigInteger batched = handleRelayMessage(msgs);
+        System.out.println("messages:" + msgs.length + ", dst:" + msgs[0].getDst() +
+                ", stepUsed:" + batched + ", stepUsedOneByOne:" + separated);
+        return separated.subtract(batched);
+    }
+
+    @Test
+    void handleRelayMessageStepCost() {
+        BigInteger[] steps = new BigInteger[batchSizes.length];
+        for (int i = 0; i < batchSizes.length; i++) {
+            steps[i] = handleRelayMessage(batchSizes[i]);
+        }
+        BigInteger base = steps[0];
+        for (int i = 0; i < batchSizes.length; i++) {
+            BigInteger perMessage = steps[i].subtract(base)
+                    .divide(BigInteger.valueOf(Math.max(batchSizes[i] - 1, 1)));
+            System.out.println("messages:" + batchSizes[i] +
+                    ", stepUsed:" + steps[i] + ", stepPerAdditionalMessage:" + perMessage);
+        }
+        //per-message cost must not grow with the size of batch
+        BigInteger perMessageOf10 = steps[1].subtract(base).divide(BigInteger.valueOf(batchSizes[1] - 1));
+        int last = batchSizes.length - 1;
+        BigInteger perMessageOfLast = steps[last].subtract(base).divide(BigInteger.valueOf(batchSizes[last] - 1));
+        assertTrue(perMessageOfLast.compareTo(perMessageOf10) <= 0,
+                "stepPerAdditionalMessage of " + batchSizes[last] + " messages is greater than of 10 messages");
+    }
+
+    /**
+     * Both of messages with fees and without fees include the fixed cost of (compareSize - 1) transactions
+     * and the link which is written once, so the difference comes from the rewards which are written once.
+     */
+    void assertRewardsWrittenOnce(BTPMessage[] withFees, BTPMessage[] withoutFees) {
+        BigInteger saved = savedByRelayMessage(withFees);
+        BigInteger savedWithoutFees = savedByRelayMessage(withoutFees);
+        System.out.println("saved by relay message, withFees:" + saved + ", withoutFees:" + savedWithoutFees);
+        assertTrue(saved.compareTo(savedWithoutFees) > 0,
+                "messages with fees do not save more than messages without fees");
+    }
+
+    @Test
+    void routedMessagesShouldWriteRewardsOnce() {
+        assertRewardsWrittenOnce(routeMessages(compareSize), noFeeMessages(compareSize, secondLink.net()));
+    }
+
+    /**
+     * Only the links are flushed around each BSH call, the rewards are kept until the end of relay message
+     */
+    @Test
+    void bshMessagesShouldWriteRewardsOnce() {
+        assertRewardsWrittenOnce(bshMessages(compareSize), noFeeMessages(compareSize, btpAddress.net()));
+    }
+}
@@ -37,6 +37,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 
 import java.math.BigInteger;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
@@ -126,6 +127,14 @@ public class RewardTest implements BMCIntegrationTest {
         return reward;
     }
 
+    @Test
+    void getRewardsShouldReturnRewardOfAllNetworks() {
+        String net = link.net();
+        BigInteger reward = ensureReward(net, false);
+        Map rewards = bmc.getRewards(relay);
+        assertEquals(reward, new BigInteger(((String) rewards.get(net)).substring(2), 16));
+    }
+
     static Consumer<TransactionResult> rewardChecker(String net, Address address, BigInteger amount) {
         BigInteger preReward = bmc.getReward(net, address);
         return (txr) -> {
@@ -26,12 +26,17 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInfo;
 
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class RouteManagementTest implements BMCIntegrationTest {
     static BTPAddress link = BTPIntegrationTest.Faker.btpLink();
     static String dst = BTPIntegrationTest.Faker.btpNetwork();
+    static Address relay = bmc._wallet().getAddress();
 
     @SuppressWarnings("unchecked")
     static boolean isExistsRoute(String dst, String link) {
@@ -66,12 +71,14 @@ public class RouteManagementTest implements BMCIntegrationTest {
         Address mockBMVAddress = MockBMVIntegrationTest.mockBMV._address();
         BMVManagementTest.addVerifier(link.net(), mockBMVAddress);
         LinkManagementTest.addLink(link.toString());
+        BMRManagementTest.addRelay(link.toString(), relay);
         System.out.println("RouteManagementTest:beforeAll end");
     }
 
     @AfterAll
     static void afterAll() {
         System.out.println("RouteManagementTest:afterAll start");
+        BMRManagementTest.clearRelay(link.toString(), relay);
         LinkManagementTest.clearLink(link.toString());
         BMVManagementTest.clearVerifier(link.net());
         System.out.println("RouteManagementTest:afterAll end");
@@ -112,6 +119,37 @@ public class RouteManagementTest implements BMCIntegrationTest {
         AssertBMCException.assertUnknown(() -> removeRoute(dst));
     }
 
+    @Test
+    void getRoutesShouldContainReachable() {
+        BTPAddress reachable = Faker.btpLink();
+        MessageTest.ensureReachable(link, new BTPAddress[]{reachable});
+        assertTrue(isExistsRoute(reachable.net(), link.net()));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void getRoutesPageShouldReturnSameAsGetRoutes() {
+        addRoute(dst, link.net());
+        MessageTest.ensureReachable(link, new BTPAddress[]{Faker.btpLink()});
+
+        Map<String, Object> routes = new HashMap<>();
+        int offset = 0;
+        while (offset >= 0) {
+            Map<String, Object> page = bmc.getRoutesPage(offset, 1);
+            routes.putAll((Map<String, Object>) page.get("routes"));
+            int next = Integer.decode((String) page.get("next"));
+            assertTrue(next < 0 || next == offset + 1);
+            offset = next;
+        }
+        assertEquals(bmc.getRoutes(), routes);
+    }
+
+    @Test
+    void getRoutesPageShouldRevertInvalidLimit() {
+        AssertBMCException.assertUnknown(() -> bmc.getRoutesPage(0, 0));
+        AssertBMCException.assertUnknown(() -> bmc.getRoutesPage(0, BTPMessageCenter.MAX_PAGE_SIZE + 1));
+    }
+
     @Test
     void removeLinkShouldRevertReferred() {
         addRoute(dst, link.net());
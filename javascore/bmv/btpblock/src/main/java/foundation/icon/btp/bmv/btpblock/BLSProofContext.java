@@ -0,0 +1,69 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.btp.bmv.btpblock;
+
+import score.Context;
+import score.ObjectReader;
+import scorex.util.ArrayList;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ProofContext of the network type which signs with BLS12-381,
+ * list of compressed G1 public keys of the validators.
+ * A public key must not be duplicated, so that a signer is counted once for quorum.
+ */
+public class BLSProofContext {
+    public static final int PUBLIC_KEY_LEN = 48;
+    private byte[][] publicKeys;
+
+    public BLSProofContext(byte[][] publicKeys) {
+        this.publicKeys = publicKeys;
+    }
+
+    public byte[][] getPublicKeys() {
+        return publicKeys;
+    }
+
+    public static BLSProofContext readObject(ObjectReader reader) {
+        reader.beginList();
+        List<byte[]> keyList = new ArrayList<>();
+        reader.beginList();
+        while(reader.hasNext()) {
+            byte[] key = reader.readByteArray();
+            if (key.length != PUBLIC_KEY_LEN) throw BMVException.unknown("invalid public key length");
+            for (byte[] k : keyList) {
+                if (Arrays.equals(k, key)) throw BMVException.unknown("duplicated public key");
+            }
+            keyList.add(key);
+        }
+        reader.end();
+        int len = keyList.size();
+        byte[][] keys = new byte[len][];
+        for (int i = 0; i < len; i++) {
+            keys[i] = keyList.get(i);
+        }
+        reader.end();
+        return new BLSProofContext(keys);
+    }
+
+    public static BLSProofContext fromBytes(byte[] bytes) {
+        ObjectReader reader = Context.newByteArrayObjectReader("RLPn", bytes);
+        return BLSProofContext.readObject(reader);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.btp.bmv.btpblock;
+
+import score.Context;
+import score.ObjectReader;
+
+/**
+ * Proofs of the network type which signs with BLS12-381,
+ * one aggregated signature and the bitmap of the validators which take part in it.
+ * The bit of the validator at position i is {@code (bitmap[i / 8] >> (i % 8)) & 1}.
+ */
+public class BLSProofs {
+    public static final int SIGNATURE_LEN = 96;
+    private byte[] bitmap;
+    private byte[] signature;
+
+    public BLSProofs(byte[] bitmap, byte[] signature) {
+        this.bitmap = bitmap;
+        this.signature = signature;
+    }
+
+    public byte[] getBitmap() {
+        return bitmap;
+    }
+
+    public byte[] getSignature() {
+        return signature;
+    }
+
+    public boolean isSigned(int position) {
+        int idx = position >> 3;
+        return idx < bitmap.length && ((bitmap[idx] >> (position & 7)) & 1) == 1;
+    }
+
+    public static BLSProofs readObject(ObjectReader r) {
+        r.beginList();
+        var bitmap = r.readByteArray();
+        var signature = r.readByteArray();
+        r.end();
+        if (signature.length != SIGNATURE_LEN) throw BMVException.unknown("invalid signature length");
+        return new BLSProofs(bitmap, signature);
+    }
+
+    public static BLSProofs fromBytes(byte[] bytes) {
+        ObjectReader reader = Context.newByteArrayObjectReader("RLPn", bytes);
+        return BLSProofs.readObject(reader);
+    }
+}
@@ -31,6 +31,7 @@ public class BMVProperties {
     private int networkTypeID;
     private BigInteger networkID;
     private byte[] proofContextHash;
+    //validators of ProofContext are stored separately, kept only for reading stored properties
     private byte[] proofContext;
     private byte[] lastNetworkSectionHash;
     private Address bmc;
@@ -40,6 +41,8 @@ public class BMVProperties {
     private BigInteger lastFirstMessageSN;
     private BigInteger height;
     private BigInteger sequenceOffset;
+    private int signerCacheSize;
+    private String networkType;
 
     public byte[] getSrcNetworkID() {
         return srcNetworkID;
@@ -159,6 +162,22 @@ public class BMVProperties {
         this.sequenceOffset = sequenceOffset;
     }
 
+    public int getSignerCacheSize() {
+        return signerCacheSize;
+    }
+
+    public void setSignerCacheSize(int signerCacheSize) {
+        this.signerCacheSize = signerCacheSize;
+    }
+
+    public String getNetworkType() {
+        return networkType;
+    }
+
+    public void setNetworkType(String networkType) {
+        this.networkType = networkType;
+    }
+
 
     public static BMVProperties readObject(ObjectReader reader) {
         BMVProperties obj = new BMVProperties();
@@ -176,6 +195,12 @@ public class BMVProperties {
         obj.setLastFirstMessageSN(reader.readNullable(BigInteger.class));
         obj.setHeight(reader.readBigInteger());
         obj.setSequenceOffset(reader.readBigInteger());
+        if (reader.hasNext()) {
+            obj.setSignerCacheSize(reader.readInt());
+        }
+        if (reader.hasNext()) {
+            obj.setNetworkType(reader.readNullable(String.class));
+        }
         reader.end();
         return obj;
     }
@@ -195,6 +220,8 @@ public class BMVProperties {
         writer.writeNullable(obj.lastFirstMessageSN);
         writer.write(obj.height);
         writer.write(obj.sequenceOffset);
+        writer.write(obj.signerCacheSize);
+        writer.writeNullable(obj.networkType);
         writer.end();
     }
 }
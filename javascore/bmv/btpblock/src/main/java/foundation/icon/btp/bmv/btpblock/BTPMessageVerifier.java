@@ -20,11 +20,14 @@ import foundation.icon.btp.lib.BMV;
 import foundation.icon.btp.lib.BMVStatus;
 import foundation.icon.btp.lib.BTPAddress;
 import foundation.icon.score.util.Logger;
+import foundation.icon.score.util.SignerCache;
 import foundation.icon.score.util.StringUtil;
 import score.Address;
 import score.Context;
+import score.DictDB;
 import score.VarDB;
 import score.annotation.External;
+import score.annotation.Optional;
 import scorex.util.ArrayList;
 
 import java.math.BigInteger;
@@ -35,14 +38,39 @@ public class BTPMessageVerifier implements BMV {
     private static final Logger logger = Logger.getLogger(BTPMessageVerifier.class);
     private static String HASH = "keccak-256";
     private static String SIGNATURE_ALG = "ecdsa-secp256k1";
+    private static String BLS_PUBLIC_KEY = "bls12-381-g1";
+    private static String BLS_SIGNATURE_ALG = "bls12-381-g2";
+    public static final String NETWORK_TYPE_ETH = "eth";
+    public static final String NETWORK_TYPE_BLS = "bls";
     private final VarDB<BMVProperties> propertiesDB = Context.newVarDB("properties", BMVProperties.class);
+    //validators of ProofContext, decoded when ProofContext is changed
+    //Map<EthAddress, Position>, public keys of BLS are not indexed since the bitmap gives the positions
+    private final DictDB<byte[], Integer> validatorPositions = Context.newDictDB("validatorPositions", Integer.class);
+    //Map<Position, EthAddress>
+    private final DictDB<Integer, byte[]> validators = Context.newDictDB("validators", byte[].class);
+    private final VarDB<Integer> validatorCount = Context.newVarDB("validatorCount", Integer.class);
 
-    public BTPMessageVerifier(String srcNetworkID, int networkTypeID, Address bmc, byte[] blockHeader, BigInteger seqOffset) {
+    /**
+     * @param signerCacheSize number of recovered signers to be cached, zero disables the cache
+     * @param networkType     {@link #NETWORK_TYPE_ETH} which signs with secp256k1 by each validator (default),
+     *                        or {@link #NETWORK_TYPE_BLS} which signs with aggregated BLS12-381 signature
+     */
+    public BTPMessageVerifier(String srcNetworkID, int networkTypeID, Address bmc, byte[] blockHeader, BigInteger seqOffset,
+                              @Optional int signerCacheSize, @Optional String networkType) {
         BMVProperties bmvProperties = getProperties();
         bmvProperties.setSrcNetworkID(srcNetworkID.getBytes());
         bmvProperties.setNetworkTypeID(networkTypeID);
         bmvProperties.setBmc(bmc);
         bmvProperties.setSequenceOffset(seqOffset);
+        if (signerCacheSize < 0) throw BMVException.unknown("invalid signerCacheSize");
+        getSignerCache(signerCacheSize).shrink(bmvProperties.getSignerCacheSize());
+        bmvProperties.setSignerCacheSize(signerCacheSize);
+        if (networkType == null || networkType.isEmpty()) {
+            networkType = NETWORK_TYPE_ETH;
+        } else if (!NETWORK_TYPE_ETH.equals(networkType) && !NETWORK_TYPE_BLS.equals(networkType)) {
+            throw BMVException.unknown("not supported networkType : " + networkType);
+        }
+        bmvProperties.setNetworkType(networkType);
         handleFirstBlockHeader(BlockHeader.fromBytes(blockHeader), bmvProperties);
     }
 
@@ -50,12 +78,57 @@ public class BTPMessageVerifier implements BMV {
         return propertiesDB.getOrDefault(BMVProperties.DEFAULT);
     }
 
+    protected void setProperties(BMVProperties properties) {
+        propertiesDB.set(properties);
+    }
+
+    private SignerCache getSignerCache(int size) {
+        return new SignerCache("signer", size);
+    }
+
+    private static boolean isBLS(BMVProperties properties) {
+        return NETWORK_TYPE_BLS.equals(properties.getNetworkType());
+    }
+
+    private void setProofContext(byte[] proofContextBytes, BMVProperties properties) {
+        byte[][] addresses;
+        if (isBLS(properties)) {
+            addresses = BLSProofContext.fromBytes(proofContextBytes).getPublicKeys();
+        } else {
+            EthAddress[] ethAddresses = ProofContext.fromBytes(proofContextBytes).getValidators();
+            addresses = new byte[ethAddresses.length][];
+            for (int i = 0; i < ethAddresses.length; i++) {
+                addresses[i] = ethAddresses[i].toBytes();
+            }
+        }
+        boolean indexPositions = !isBLS(properties);
+        int oldCount = validatorCount.getOrDefault(0);
+        for (int i = 0; i < oldCount; i++) {
+            byte[] old = validators.get(i);
+            // network type may be changed by update, so it's decided by the stored validator
+            if (old.length != BLSProofContext.PUBLIC_KEY_LEN) {
+                validatorPositions.set(old, null);
+            }
+            if (i >= addresses.length) {
+                validators.set(i, null);
+            }
+        }
+        for (int i = 0; i < addresses.length; i++) {
+            byte[] address = addresses[i];
+            validators.set(i, address);
+            if (indexPositions) {
+                validatorPositions.set(address, i);
+            }
+        }
+        validatorCount.set(addresses.length);
+    }
+
     @External
     public byte[][] handleRelayMessage(String _bmc, String _prev, BigInteger _seq, byte[] _msg) {
         BTPAddress curAddr = BTPAddress.valueOf(_bmc);
         BTPAddress prevAddr = BTPAddress.valueOf(_prev);
-        checkAccessible(curAddr, prevAddr);
         var bmvProperties = getProperties();
+        checkAccessible(bmvProperties, curAddr, prevAddr);
         var lastSeq = bmvProperties.getLastSequence();
         var seq = bmvProperties.getSequenceOffset().add(lastSeq);
         if (seq.compareTo(_seq) != 0) throw BMVException.unknown("invalid sequence");
@@ -67,14 +140,15 @@ public class BTPMessageVerifier implements BMV {
             Object msg = message.getMessage();
             if (msg instanceof BlockUpdate) {
                 blockUpdate = (BlockUpdate) msg;
-                handleBlockUpdateMessage(blockUpdate);
+                handleBlockUpdateMessage(blockUpdate, bmvProperties);
             } else if (msg instanceof MessageProof) {
-                var msgs = handleMessageProof((MessageProof) msg, blockUpdate);
+                var msgs = handleMessageProof((MessageProof) msg, blockUpdate, bmvProperties);
                 for(byte[] m : msgs) {
                     msgList.add(m);
                 }
             }
         }
+        setProperties(bmvProperties);
         var retSize = msgList.size();
         var ret = new byte[retSize][];
         if (retSize > 0) {
@@ -118,18 +192,18 @@ public class BTPMessageVerifier implements BMV {
             throw BMVException.unknown("mismatch Hash of proofContext");
         bmvProperties.setNetworkID(blockUpdateNid);
         bmvProperties.setProofContextHash(nextProofContextHash);
-        bmvProperties.setProofContext(nextProofContext);
+        bmvProperties.setProofContext(null);
+        setProofContext(nextProofContext, bmvProperties);
         bmvProperties.setLastNetworkSectionHash(nsHash);
         bmvProperties.setLastSequence(BigInteger.ZERO);
         bmvProperties.setLastMessagesRoot(msgRoot);
         bmvProperties.setLastMessageCount(msgCnt);
         bmvProperties.setLastFirstMessageSN(blockHeader.getFirstMessageSn());
         bmvProperties.setHeight(blockHeader.getMainHeight());
-        propertiesDB.set(bmvProperties);
+        setProperties(bmvProperties);
     }
 
-    private void handleBlockUpdateMessage(BlockUpdate blockUpdate) {
-        var bmvProperties = propertiesDB.get();
+    private void handleBlockUpdateMessage(BlockUpdate blockUpdate, BMVProperties bmvProperties) {
         var networkID = bmvProperties.getNetworkID();
         var blockHeader = blockUpdate.getBlockHeader();
         var updateNumber = blockHeader.getUpdateNumber();
@@ -165,21 +239,24 @@ public class BTPMessageVerifier implements BMV {
         var ntsHash = nts.hash();
         NetworkTypeSectionDecision decision = new NetworkTypeSectionDecision(
                 srcNetworkID, networkTypeID, height.longValue(), round.intValue(), ntsHash);
-        Proofs proofs = Proofs.fromBytes(blockUpdate.getBlockProof());
         var isUpdate = updateNumber.and(BigInteger.ONE).compareTo(BigInteger.ONE) == 0;
-        verifyProof(decision, proofs);
+        if (isBLS(bmvProperties)) {
+            verifyProof(decision, BLSProofs.fromBytes(blockUpdate.getBlockProof()));
+        } else {
+            Proofs proofs = Proofs.fromBytes(blockUpdate.getBlockProof());
+            verifyProof(decision, proofs, getSignerCache(bmvProperties.getSignerCacheSize()));
+        }
         if (isUpdate) {
             var nextProofContext = blockHeader.getNextProofContext();
             verifyProofContextData(nextProofContextHash, nextProofContext, bmvProperties.getProofContextHash());
             bmvProperties.setProofContextHash(nextProofContextHash);
-            bmvProperties.setProofContext(nextProofContext);
+            setProofContext(nextProofContext, bmvProperties);
         }
         bmvProperties.setLastMessagesRoot(blockHeader.getMessageRoot());
         bmvProperties.setLastMessageCount(blockHeader.getMessageCount());
         bmvProperties.setLastFirstMessageSN(blockHeader.getFirstMessageSn());
         bmvProperties.setLastNetworkSectionHash(nsHash);
         bmvProperties.setHeight(blockHeader.getMainHeight());
-        propertiesDB.set(bmvProperties);
     }
 
     private void verifyProofContextData(byte[] proofContextHash, byte[] proofContext, byte[] currentProofContextHash) {
@@ -187,30 +264,59 @@ public class BTPMessageVerifier implements BMV {
         if (!Arrays.equals(hash(proofContext), proofContextHash)) throw BMVException.unknown("mismatch Hash of NextProofContext");
     }
 
-    private void verifyProof(NetworkTypeSectionDecision decision, Proofs proofs) {
+    private void verifyProof(NetworkTypeSectionDecision decision, Proofs proofs, SignerCache signerCache) {
         byte[] decisionHash = decision.hash();
         byte[][] sigs = proofs.getProofs();
-        List<EthAddress> verifiedValidator = new ArrayList<>();
-        var bmvProperties = propertiesDB.get();
-        var proofContextBytes = bmvProperties.getProofContext();
-        var proofContext = ProofContext.fromBytes(proofContextBytes);
+        var validatorsCnt = validatorCount.getOrDefault(0);
+        boolean[] verifiedValidator = new boolean[validatorsCnt];
+        int verified = 0;
         for (byte[] sig : sigs) {
-            EthAddress address = recoverAddress(decisionHash, sig);
-            if (!proofContext.isValidator(address)) throw BMVException.unknown("invalid validator : " + address);
-            if (verifiedValidator.contains(address)) throw BMVException.unknown("duplicated validator : " + address);
-            verifiedValidator.add(address);
+            EthAddress address = recoverAddress(signerCache, decisionHash, sig);
+            Integer position = validatorPositions.get(address.toBytes());
+            if (position == null) throw BMVException.unknown("invalid validator : " + address);
+            if (verifiedValidator[position]) throw BMVException.unknown("duplicated validator : " + address);
+            verifiedValidator[position] = true;
+            verified++;
+        }
+        //quorum = validator * 2/3
+        if (verified * 3 <= validatorsCnt * 2)
+                throw BMVException.unknown("not enough proof parts num of validator : " + validatorsCnt + ", num of proof parts : " + verified);
+    }
+
+    /**
+     * Verifies aggregated signature of the validators in bitmap with one pairing check.
+     * Public keys of ProofContext are distinct, which is checked by BLSProofContext,
+     * and trusted to be registered with proof of possession.
+     */
+    private void verifyProof(NetworkTypeSectionDecision decision, BLSProofs proofs) {
+        var validatorsCnt = validatorCount.getOrDefault(0);
+        byte[] bitmap = proofs.getBitmap();
+        if (bitmap.length != (validatorsCnt + 7) / 8) throw BMVException.unknown("invalid bitmap length");
+        if (validatorsCnt % 8 != 0 && (bitmap[bitmap.length - 1] & 0xff) >> (validatorsCnt % 8) != 0)
+            throw BMVException.unknown("invalid bitmap");
+        byte[] keys = new byte[validatorsCnt * BLSProofContext.PUBLIC_KEY_LEN];
+        int verified = 0;
+        for (int i = 0; i < validatorsCnt; i++) {
+            if (proofs.isSigned(i)) {
+                System.arraycopy(validators.get(i), 0,
+                        keys, verified * BLSProofContext.PUBLIC_KEY_LEN, BLSProofContext.PUBLIC_KEY_LEN);
+                verified++;
+            }
         }
-        var verified = verifiedValidator.size();
-        var validatorsCnt = proofContext.getValidators().length;
         //quorum = validator * 2/3
         if (verified * 3 <= validatorsCnt * 2)
                 throw BMVException.unknown("not enough proof parts num of validator : " + validatorsCnt + ", num of proof parts : " + verified);
+        byte[] signedKeys = new byte[verified * BLSProofContext.PUBLIC_KEY_LEN];
+        System.arraycopy(keys, 0, signedKeys, 0, signedKeys.length);
+        byte[] aggregatedKey = Context.aggregate(BLS_PUBLIC_KEY, null, signedKeys);
+        if (!Context.verifySignature(BLS_SIGNATURE_ALG, decision.hash(), proofs.getSignature(), aggregatedKey))
+            throw BMVException.unknown("invalid aggregated signature");
     }
 
-    private byte[][] handleMessageProof(MessageProof messageProof, BlockUpdate blockUpdate) {
+    private byte[][] handleMessageProof(MessageProof messageProof, BlockUpdate blockUpdate,
+                                        BMVProperties bmvProperties) {
         byte[] expectedMessageRoot;
         BigInteger expectedMessageCnt;
-        var bmvProperties = propertiesDB.get();
         if (bmvProperties.getRemainMessageCount().compareTo(BigInteger.ZERO) <= 0)
             throw BMVException.unknown("remaining message count must greater than zero");
         MessageProof.ProveResult result = messageProof.proveMessage();
@@ -248,7 +354,6 @@ public class BTPMessageVerifier implements BMV {
             bmvProperties.setLastMessagesRoot(null);
         }
         bmvProperties.setLastSequence(bmvProperties.getLastSequence().add(BigInteger.valueOf(msgCnt)));
-        propertiesDB.set(bmvProperties);
         return messageProof.getMessages();
     }
 
@@ -256,6 +361,17 @@ public class BTPMessageVerifier implements BMV {
         return Context.hash(HASH, msg);
     }
 
+    static EthAddress recoverAddress(SignerCache cache, byte[] msg, byte[] sig) {
+        byte[] key = cache.keyOf(msg, sig);
+        byte[] cached = cache.get(key);
+        if (cached != null) {
+            return new EthAddress(cached);
+        }
+        EthAddress address = recoverAddress(msg, sig);
+        cache.put(key, address.toBytes());
+        return address;
+    }
+
     static EthAddress recoverAddress(byte[] msg, byte[] sig) {
         byte[] publicKey = Context.recoverKey(SIGNATURE_ALG, msg, sig, false);
         int sliceLen = publicKey.length - 1;
@@ -267,8 +383,7 @@ public class BTPMessageVerifier implements BMV {
         return new EthAddress(addr);
     }
 
-    private void checkAccessible(BTPAddress curAddr, BTPAddress fromAddress) {
-        BMVProperties properties = getProperties();
+    private void checkAccessible(BMVProperties properties, BTPAddress curAddr, BTPAddress fromAddress) {
         if (!properties.getNetwork().equals(fromAddress.net())) {
             throw BMVException.unknown("invalid prev bmc");
         } else if (!Context.getCaller().equals(properties.getBmc())) {
@@ -16,6 +16,7 @@
 
 package foundation.icon.btp.bmv.btpblock;
 
+import foundation.icon.score.util.RLPSlice;
 import score.ByteArrayObjectWriter;
 import score.Context;
 import score.ObjectReader;
@@ -148,6 +149,44 @@ public class BlockHeader {
         return BlockHeader.readObject(reader);
     }
 
+    public static BlockHeader fromSlice(RLPSlice slice) {
+        RLPSlice.Items items = slice.items();
+        var mainHeight = readNullableBigInteger(items.next());
+        var round = readNullableBigInteger(items.next());
+        var nextProofContextHash = items.next().readNullableByteArray();
+        List<NetworkSectionToRoot> nstoRootList = new ArrayList<>();
+        RLPSlice.Items nstoRootItems = items.next().items();
+        while(nstoRootItems.hasNext()) {
+            nstoRootList.add(NetworkSectionToRoot.fromSlice(nstoRootItems.next()));
+        }
+        NetworkSectionToRoot[] networkSectionToRoot = new NetworkSectionToRoot[nstoRootList.size()];
+        for(int i = 0; i < nstoRootList.size(); i++) {
+            networkSectionToRoot[i] = nstoRootList.get(i);
+        }
+        var nid = items.next().readBigInteger();
+        var updateNumber = items.next().readBigInteger();
+        var prev = items.next().readNullableByteArray();
+        var messageCount = items.next().readBigInteger();
+        var messageRoot = items.next().readNullableByteArray();
+        var nextProofContext = items.next().readNullableByteArray();
+        return new BlockHeader(
+                mainHeight,
+                round,
+                nextProofContextHash,
+                networkSectionToRoot,
+                nid,
+                updateNumber,
+                prev,
+                messageCount,
+                messageRoot,
+                nextProofContext
+        );
+    }
+
+    private static BigInteger readNullableBigInteger(RLPSlice slice) {
+        return slice.isNull() ? null : slice.readBigInteger();
+    }
+
     private static byte[] concatAndHash(byte[] b1, byte[] b2) {
         byte[] data = new byte[HASH_LEN * 2];
         System.arraycopy(b1, 0, data, 0, HASH_LEN);
@@ -16,6 +16,7 @@
 
 package foundation.icon.btp.bmv.btpblock;
 
+import foundation.icon.score.util.RLPSlice;
 import score.Context;
 import score.ObjectReader;
 import score.ObjectWriter;
@@ -49,6 +50,16 @@ public class BlockUpdate {
         );
     }
 
+    public static BlockUpdate fromSlice(RLPSlice slice) {
+        RLPSlice.Items items = slice.items();
+        var blockHeader = BlockHeader.fromSlice(items.next().decode());
+        var blockProof = items.next().readNullableByteArray();
+        return new BlockUpdate(
+                blockHeader,
+                blockProof
+        );
+    }
+
     public static BlockUpdate fromBytes(byte[] bytes) {
         ObjectReader reader = Context.newByteArrayObjectReader("RLPn", bytes);
         return BlockUpdate.readObject(reader);
@@ -34,6 +34,10 @@ public class EthAddress {
         return new EthAddress(r.readByteArray());
     }
 
+    public byte[] toBytes() {
+        return data;
+    }
+
     public void writeObject(ObjectWriter writer) {
         writer.write(data);
     }
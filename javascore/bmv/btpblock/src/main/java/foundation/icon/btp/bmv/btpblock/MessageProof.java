@@ -16,6 +16,7 @@
 
 package foundation.icon.btp.bmv.btpblock;
 
+import foundation.icon.score.util.RLPSlice;
 import score.ByteArrayObjectWriter;
 import score.Context;
 import score.ObjectReader;
@@ -87,38 +88,68 @@ public class MessageProof {
         return new MessageProof(leftProofNodes, messages, rightProofNodes);
     }
 
+    public static MessageProof fromSlice(RLPSlice slice) {
+        RLPSlice.Items items = slice.items();
+        ProofNode[] leftProofNodes = readProofNodes(items.next());
+        List<byte[]> messageList = new ArrayList<>();
+        RLPSlice.Items messageItems = items.next().items();
+        while(messageItems.hasNext()) {
+            messageList.add(messageItems.next().readByteArray());
+        }
+        int messagesLength = messageList.size();
+        byte[][] messages = new byte[messagesLength][];
+        for(int i = 0; i < messagesLength; i++) {
+            messages[i] = messageList.get(i);
+        }
+        ProofNode[] rightProofNodes = readProofNodes(items.next());
+        return new MessageProof(leftProofNodes, messages, rightProofNodes);
+    }
+
+    private static ProofNode[] readProofNodes(RLPSlice slice) {
+        List<ProofNode> nodes = new ArrayList<>();
+        RLPSlice.Items items = slice.items();
+        while(items.hasNext()) {
+            nodes.add(ProofNode.fromSlice(items.next()));
+        }
+        var size = nodes.size();
+        ProofNode[] proofNodes = new ProofNode[size];
+        for (int i = 0; i < size; i++){
+            proofNodes[i] = nodes.get(i);
+        }
+        return proofNodes;
+    }
+
     public static MessageProof fromBytes(byte[] bytes) {
         ObjectReader reader = Context.newByteArrayObjectReader("RLPn", bytes);
         return MessageProof.readObject(reader);
     }
 
     public ProveResult proveMessage() {
-        Node node = new Node();
+        NodeAccumulator acc = new NodeAccumulator();
         int left = 0, total = 0;
         for (ProofNode pn : leftProofNodes) {
             var num = pn.getNumOfLeaf();
-            node = node.add(num, pn.getValue());
+            acc.add(num, pn.getValue());
             left += num;
         }
 
         for (byte[] message : messages) {
-            node = node.add(1, BTPMessageVerifier.hash(message));
+            acc.add(1, BTPMessageVerifier.hash(message));
             total++;
         }
 
         for (ProofNode pn : rightProofNodes) {
             var num = pn.getNumOfLeaf();
-            node = node.add(num, pn.getValue());
+            acc.add(num, pn.getValue());
             total += num;
         }
-        node.ensureHash(false);
+        var hash = acc.finish();
 
         total += left;
-        var rootNumOfLeaf = node.getNumOfLeaf();
+        var rootNumOfLeaf = acc.getNumOfLeaf();
         if (total != rootNumOfLeaf)
             throw BMVException.unknown("total doesn't match total : " + total + ", node : " + rootNumOfLeaf);
-        node.verify();
-        return new ProveResult(node.getValue(), left, total);
+        return new ProveResult(hash, left, total);
     }
 
     public static class ProveResult {
@@ -16,6 +16,7 @@
 
 package foundation.icon.btp.bmv.btpblock;
 
+import foundation.icon.score.util.RLPSlice;
 import score.ObjectReader;
 import score.ObjectWriter;
 
@@ -37,4 +38,9 @@ public class NetworkSectionToRoot {
         r.end();
         return obj;
     }
+
+    public static NetworkSectionToRoot fromSlice(RLPSlice slice) {
+        RLPSlice.Items items = slice.items();
+        return new NetworkSectionToRoot(items.next().readInt(), items.next().readByteArray());
+    }
 }
@@ -98,7 +98,7 @@ public class Node {
         }
     }
 
-    private static int numberToLevel(int n) {
+    static int numberToLevel(int n) {
         if (n <= LEVEL_BRANCH) return n;
         int l = LEVEL_BRANCH + 1;
         for (int i = (n - 1) >> 2; i > 0; i = i >> 1 ) {
@@ -107,7 +107,7 @@ public class Node {
         return l;
     }
 
-    private static byte[] concatAndHash(byte[] b1, byte[] b2) {
+    static byte[] concatAndHash(byte[] b1, byte[] b2) {
         int len = 0, accum = 0;
         if (b1 != null) len += b1.length;
         if (b2 != null) len += b2.length;
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.btp.bmv.btpblock;
+
+/**
+ * Builds the same tree as {@link Node#add(int, byte[])} without keeping the nodes.
+ * Only the right-most path of the tree is kept as a stack of branches,
+ * and the left child of each branch is kept as its level, number of leaves and hash.
+ * A subtree is hashed and verified once, when it becomes a left child or when {@link #finish()} is called.
+ */
+public class NodeAccumulator {
+    private static final int INITIAL_CAPACITY = 16;
+
+    //branches on the right-most path from the root
+    private int size;
+    private int[] leftLevels = new int[INITIAL_CAPACITY];
+    private int[] leftNumOfLeafs = new int[INITIAL_CAPACITY];
+    private byte[][] leftValues = new byte[INITIAL_CAPACITY][];
+    private int[] numOfLeafs = new int[INITIAL_CAPACITY];
+
+    //right-most node
+    private int level = Node.LEVEL_INIT;
+    private int numOfLeaf;
+    private byte[] value;
+
+    public void add(int numOfLeaf, byte[] value) {
+        if (numOfLeaf < 1) {
+            throw BMVException.unknown("invalid numOfLeaf, expected : positive, value : " + numOfLeaf);
+        }
+        if (level == Node.LEVEL_INIT) {
+            setRightMost(numOfLeaf, value);
+            return;
+        }
+        //find balanced branch from the root, same as Node.add
+        int i = 0;
+        while (i < size && leftNumOfLeafs[i] * 2 != numOfLeafs[i]) {
+            i++;
+        }
+        int childLevel, childNumOfLeaf;
+        byte[] childValue;
+        if (i < size) {
+            childLevel = leftLevels[i] + 1;
+            childNumOfLeaf = numOfLeafs[i];
+            childValue = collapse(i);
+        } else {
+            childLevel = this.level;
+            childNumOfLeaf = this.numOfLeaf;
+            childValue = this.value;
+        }
+        for (int j = 0; j < i; j++) {
+            numOfLeafs[j] += numOfLeaf;
+        }
+        push(childLevel, childNumOfLeaf, childValue, childNumOfLeaf + numOfLeaf);
+        setRightMost(numOfLeaf, value);
+    }
+
+    private void setRightMost(int numOfLeaf, byte[] value) {
+        this.level = Node.numberToLevel(numOfLeaf);
+        this.numOfLeaf = numOfLeaf;
+        this.value = value;
+    }
+
+    private void push(int leftLevel, int leftNumOfLeaf, byte[] leftValue, int numOfLeaf) {
+        if (size == leftLevels.length) {
+            int capacity = size * 2;
+            leftLevels = copyOf(leftLevels, capacity);
+            leftNumOfLeafs = copyOf(leftNumOfLeafs, capacity);
+            numOfLeafs = copyOf(numOfLeafs, capacity);
+            byte[][] values = new byte[capacity][];
+            System.arraycopy(leftValues, 0, values, 0, size);
+            leftValues = values;
+        }
+        leftLevels[size] = leftLevel;
+        leftNumOfLeafs[size] = leftNumOfLeaf;
+        leftValues[size] = leftValue;
+        numOfLeafs[size] = numOfLeaf;
+        size++;
+    }
+
+    private static int[] copyOf(int[] arr, int capacity) {
+        int[] ret = new int[capacity];
+        System.arraycopy(arr, 0, ret, 0, arr.length);
+        return ret;
+    }
+
+    /**
+     * Verifies and hashes the branches from the right-most node to the branch at given index,
+     * then removes them from the stack.
+     *
+     * @return hash of the branch at given index
+     */
+    private byte[] collapse(int idx) {
+        byte[] hash = this.value;
+        int rightLevel = this.level;
+        for (int i = size - 1; i >= idx; i--) {
+            int leftLevel = leftLevels[i];
+            if (leftLevel < rightLevel) {
+                throw BMVException.unknown("invalid level left : " + leftLevel + " right : " + rightLevel);
+            }
+            if (leftLevel + 1 > Node.LEVEL_BRANCH) {
+                var v = 1 << (leftLevel - Node.LEVEL_LEAF);
+                if (v != leftNumOfLeafs[i]) {
+                    throw BMVException.unknown("invalid numOfLeaf, expected : " + v + ", value : " + leftNumOfLeafs[i]);
+                }
+            }
+            hash = Node.concatAndHash(leftValues[i], hash);
+            leftValues[i] = null;
+            rightLevel = leftLevel + 1;
+        }
+        size = idx;
+        return hash;
+    }
+
+    public int getNumOfLeaf() {
+        return size > 0 ? numOfLeafs[0] : numOfLeaf;
+    }
+
+    /**
+     * Verifies and hashes the branches on the right-most path
+     *
+     * @return hash of the root, null if nothing is added
+     */
+    public byte[] finish() {
+        if (size > 0) {
+            int numOfLeaf = numOfLeafs[0];
+            int level = leftLevels[0] + 1;
+            this.value = collapse(0);
+            this.numOfLeaf = numOfLeaf;
+            this.level = level;
+        }
+        return value;
+    }
+}
@@ -16,6 +16,7 @@
 
 package foundation.icon.btp.bmv.btpblock;
 
+import foundation.icon.score.util.RLPSlice;
 import score.ObjectReader;
 import score.ObjectWriter;
 
@@ -45,6 +46,11 @@ public class ProofNode {
         return obj;
     }
 
+    public static ProofNode fromSlice(RLPSlice slice) {
+        RLPSlice.Items items = slice.items();
+        return new ProofNode(items.next().readInt(), items.next().readByteArray());
+    }
+
     public static void writeObject(ObjectWriter w, ProofNode node) {
         w.beginList(2);
         w.write(node.numOfLeaf);
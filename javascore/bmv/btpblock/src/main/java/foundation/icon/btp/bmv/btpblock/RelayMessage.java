@@ -16,6 +16,7 @@
 
 package foundation.icon.btp.bmv.btpblock;
 
+import foundation.icon.score.util.RLPSlice;
 import foundation.icon.score.util.StringUtil;
 import score.ByteArrayObjectWriter;
 import score.Context;
@@ -68,8 +69,26 @@ public class RelayMessage {
     }
 
     public static RelayMessage fromBytes(byte[] bytes) {
-        ObjectReader reader = Context.newByteArrayObjectReader("RLPn", bytes);
-        return readObject(reader);
+        return fromSlice(RLPSlice.of(bytes));
+    }
+
+    /**
+     * Payloads of messages are kept as views of given bytes, and decoded by {@link TypePrefixedMessage#getMessage()}
+     */
+    public static RelayMessage fromSlice(RLPSlice slice) {
+        RelayMessage relayMessage = new RelayMessage();
+        List<TypePrefixedMessage> typePrefixedMessages = new ArrayList<>();
+        RLPSlice.Items items = slice.items().next().items();
+        while(items.hasNext()) {
+            typePrefixedMessages.add(TypePrefixedMessage.fromSlice(items.next()));
+        }
+        int msgLength = typePrefixedMessages.size();
+        TypePrefixedMessage[] messageArray = new TypePrefixedMessage[msgLength];
+        for (int i = 0; i < msgLength; i++) {
+            messageArray[i] = typePrefixedMessages.get(i);
+        }
+        relayMessage.setMessages(messageArray);
+        return relayMessage;
     }
 
     public byte[] toBytes() {
@@ -94,19 +113,34 @@ public class RelayMessage {
         public static final int BLOCK_UPDATE = 1;
         public static final int MESSAGE_PROOF = 2;
         private final int type;
-        private final byte[] payload;
+        private byte[] payload;
+        private final RLPSlice payloadSlice;
 
         public TypePrefixedMessage(int type, byte[] payload) {
             this.type = type;
             this.payload = payload;
+            this.payloadSlice = null;
+        }
+
+        private TypePrefixedMessage(int type, RLPSlice payloadSlice) {
+            this.type = type;
+            this.payloadSlice = payloadSlice;
+        }
+
+        private byte[] getPayload() {
+            if (payload == null && payloadSlice != null) {
+                payload = payloadSlice.readByteArray();
+            }
+            return payload;
         }
 
         public Object getMessage() {
             try {
+                RLPSlice slice = payloadSlice != null ? payloadSlice.decode() : RLPSlice.of(payload);
                 if (type == BLOCK_UPDATE) {
-                    return BlockUpdate.fromBytes(payload);
+                    return BlockUpdate.fromSlice(slice);
                 } else if (type == MESSAGE_PROOF) {
-                    return MessageProof.fromBytes(payload);
+                    return MessageProof.fromSlice(slice);
                 }
             } catch (Exception e) {
                 throw BMVException.unknown("invalid relay message payload");
@@ -121,6 +155,11 @@ public class RelayMessage {
             return typePrefixedMessage;
         }
 
+        public static TypePrefixedMessage fromSlice(RLPSlice slice) {
+            RLPSlice.Items items = slice.items();
+            return new TypePrefixedMessage(items.next().readInt(), items.next());
+        }
+
         public static TypePrefixedMessage fromBytes(byte[] bytes) {
             ObjectReader reader = Context.newByteArrayObjectReader("RLPn", bytes);
             return readObject(reader);
@@ -129,7 +168,7 @@ public class RelayMessage {
         public static void writeObject(ObjectWriter writer, TypePrefixedMessage message) {
             writer.beginList(2);
             writer.write(message.type);
-            writer.write(message.payload);
+            writer.write(message.getPayload());
             writer.end();
         }
 
@@ -143,7 +182,7 @@ public class RelayMessage {
         public String toString() {
             return "TypePrefixedMessage{" +
                     "type=" + type +
-                    ", payload=" + StringUtil.bytesToHex(payload) +
+                    ", payload=" + StringUtil.bytesToHex(getPayload()) +
                     '}';
         }
 
@@ -152,7 +191,7 @@ public class RelayMessage {
             if (this == o) return true;
             if (o == null || getClass() != o.getClass()) return false;
             TypePrefixedMessage that = (TypePrefixedMessage) o;
-            return type == that.type && Arrays.equals(payload, that.payload);
+            return type == that.type && Arrays.equals(getPayload(), that.getPayload());
         }
     }
 }
\ No newline at end of file
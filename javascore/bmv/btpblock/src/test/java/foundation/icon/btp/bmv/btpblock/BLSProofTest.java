@@ -0,0 +1,210 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.btp.bmv.btpblock;
+
+import com.iconloop.score.test.Account;
+import com.iconloop.score.test.Score;
+import com.iconloop.score.test.ServiceManager;
+import com.iconloop.score.test.TestBase;
+import foundation.icon.btp.lib.BMVStatus;
+import foundation.icon.btp.lib.BTPAddress;
+import foundation.icon.btp.test.BTPIntegrationTest;
+import org.junit.jupiter.api.Test;
+import score.ByteArrayObjectWriter;
+import score.Context;
+import score.UserRevertedException;
+import supranational.blst.P1;
+import supranational.blst.P2;
+import supranational.blst.SecretKey;
+
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BLSProofTest extends TestBase {
+    static final ServiceManager sm = getServiceManager();
+    static final Account owner = sm.createAccount();
+    static final String SRC_NETWORK_ID = "btp://0x1.icon";
+    static final String network = "0x1.icon";
+    static final int NETWORK_TYPE_ID = 2;
+    static final BigInteger NID = BigInteger.ONE;
+    static final long HEIGHT = 10;
+    static final String DST = "BLS_SIG_BLS12381G2_XMD:SHA-256_SSWU_RO_NUL_";
+    static final int NUM_OF_VALIDATORS = 4;
+    static final Account bmcAccount = Account.newScoreAccount(Integer.MAX_VALUE - 1);
+    static final Account prevAccount = Account.newScoreAccount(1);
+    static final BTPAddress bmc = new BTPAddress(BTPIntegrationTest.Faker.btpNetwork(),
+            bmcAccount.getAddress().toString());
+    static final BTPAddress prev = new BTPAddress(network, prevAccount.getAddress().toString());
+    static final SecretKey[] secretKeys = new SecretKey[NUM_OF_VALIDATORS];
+    static final byte[][] publicKeys = new byte[NUM_OF_VALIDATORS][];
+
+    static {
+        for (int i = 0; i < NUM_OF_VALIDATORS; i++) {
+            byte[] ikm = new byte[32];
+            ikm[0] = (byte) (i + 1);
+            secretKeys[i] = new SecretKey();
+            secretKeys[i].keygen(ikm);
+            publicKeys[i] = new P1(secretKeys[i]).compress();
+        }
+    }
+
+    static byte[] proofContext() {
+        return proofContext(publicKeys);
+    }
+
+    static byte[] proofContext(byte[][] publicKeys) {
+        ByteArrayObjectWriter w = Context.newByteArrayObjectWriter("RLPn");
+        w.beginList(1);
+        w.beginList(publicKeys.length);
+        for (byte[] publicKey : publicKeys) {
+            w.write(publicKey);
+        }
+        w.end();
+        w.end();
+        return w.toByteArray();
+    }
+
+    static byte[] blockHeader(long height, byte[] proofContextHash, byte[] prev, byte[] proofContext) {
+        ByteArrayObjectWriter w = Context.newByteArrayObjectWriter("RLPn");
+        w.beginList(10);
+        w.write(BigInteger.valueOf(height));
+        w.write(BigInteger.ZERO);
+        w.writeNullable(proofContextHash);
+        w.beginList(0);
+        w.end();
+        w.write(NID);
+        w.write(BigInteger.ZERO);
+        w.writeNullable(prev);
+        w.write(BigInteger.ZERO);
+        w.writeNullable((byte[]) null);
+        w.writeNullable(proofContext);
+        w.end();
+        return w.toByteArray();
+    }
+
+    static byte[] networkSectionHash(byte[] prev) {
+        return new NetworkSection(NID, BigInteger.ZERO, prev, BigInteger.ZERO, null).hash();
+    }
+
+    static byte[] proofs(byte[] bitmap, byte[] signature) {
+        ByteArrayObjectWriter w = Context.newByteArrayObjectWriter("RLPn");
+        w.beginList(2);
+        w.write(bitmap);
+        w.write(signature);
+        w.end();
+        return w.toByteArray();
+    }
+
+    static byte[] sign(byte[] msg, int... signers) {
+        P2 aggregated = null;
+        for (int signer : signers) {
+            P2 sig = new P2().hash_to(msg, DST).sign_with(secretKeys[signer]);
+            if (aggregated == null) {
+                aggregated = sig;
+            } else {
+                aggregated.add(sig);
+            }
+        }
+        return aggregated.compress();
+    }
+
+    static byte[] relayMessage(byte[] blockHeader, byte[] blockProof) {
+        ByteArrayObjectWriter w = Context.newByteArrayObjectWriter("RLPn");
+        w.beginList(2);
+        w.write(blockHeader);
+        w.writeNullable(blockProof);
+        w.end();
+        RelayMessage relayMessage = new RelayMessage();
+        relayMessage.setMessages(new RelayMessage.TypePrefixedMessage[]{
+                new RelayMessage.TypePrefixedMessage(RelayMessage.TypePrefixedMessage.BLOCK_UPDATE, w.toByteArray())});
+        return relayMessage.toBytes();
+    }
+
+    Score deploy() throws Exception {
+        byte[] proofContext = proofContext();
+        return sm.deploy(owner, BTPMessageVerifier.class,
+                SRC_NETWORK_ID,
+                NETWORK_TYPE_ID,
+                bmcAccount.getAddress(),
+                blockHeader(HEIGHT, BTPMessageVerifier.hash(proofContext), null, proofContext),
+                BigInteger.ZERO,
+                0,
+                BTPMessageVerifier.NETWORK_TYPE_BLS
+        );
+    }
+
+    /**
+     * @return relay message of next block which is signed by given signers, and bitmap
+     */
+    static byte[] nextBlockUpdate(byte[] bitmap, int... signers) {
+        byte[] proofContextHash = BTPMessageVerifier.hash(proofContext());
+        byte[] prev = networkSectionHash(null);
+        byte[] nsHash = networkSectionHash(prev);
+        byte[] ntsHash = new NetworkTypeSection(proofContextHash, nsHash).hash();
+        byte[] decisionHash = new NetworkTypeSectionDecision(
+                SRC_NETWORK_ID.getBytes(), NETWORK_TYPE_ID, HEIGHT + 1, 0, ntsHash).hash();
+        return relayMessage(
+                blockHeader(HEIGHT + 1, proofContextHash, prev, null),
+                proofs(bitmap, sign(decisionHash, signers)));
+    }
+
+    void handleRelayMessage(Score score, byte[] msg) throws Exception {
+        sm.call(bmcAccount, BigInteger.ZERO, score.getAddress(), "handleRelayMessage",
+                bmc.toString(), prev.toString(), BigInteger.ZERO, msg);
+    }
+
+    void assertRevert(String expected, Score score, byte[] msg) {
+        var e = assertThrows(UserRevertedException.class, () -> handleRelayMessage(score, msg));
+        assertTrue(e.getMessage().contains(expected), e.getMessage());
+    }
+
+    @Test
+    void verifyAggregatedSignature() throws Exception {
+        Score score = deploy();
+        handleRelayMessage(score, nextBlockUpdate(new byte[]{0x07}, 0, 1, 2));
+        BMVStatus status = (BMVStatus) score.call("getStatus");
+        assertEquals(HEIGHT + 1, status.getHeight());
+    }
+
+    @Test
+    void notEnoughSigners() throws Exception {
+        Score score = deploy();
+        assertRevert("not enough proof parts", score, nextBlockUpdate(new byte[]{0x05}, 0, 2));
+    }
+
+    @Test
+    void bitmapNotMatchedWithSigners() throws Exception {
+        Score score = deploy();
+        assertRevert("invalid aggregated signature", score, nextBlockUpdate(new byte[]{0x0f}, 0, 1, 2));
+        assertRevert("invalid aggregated signature", score, nextBlockUpdate(new byte[]{0x0e}, 0, 1, 2));
+    }
+
+    @Test
+    void invalidBitmap() throws Exception {
+        Score score = deploy();
+        assertRevert("invalid bitmap", score, nextBlockUpdate(new byte[]{0x17}, 0, 1, 2));
+        assertRevert("invalid bitmap length", score, nextBlockUpdate(new byte[]{0x07, 0x00}, 0, 1, 2));
+    }
+
+    @Test
+    void duplicatedPublicKey() {
+        byte[][] keys = new byte[][]{publicKeys[0], publicKeys[1], publicKeys[2], publicKeys[0]};
+        var e = assertThrows(BMVException.class, () -> BLSProofContext.fromBytes(proofContext(keys)));
+        assertTrue(e.getMessage().contains("duplicated public key"), e.getMessage());
+    }
+}
@@ -28,6 +28,7 @@ import org.junit.jupiter.api.Test;
 import score.Address;
 import score.RevertedException;
 import score.UserRevertedException;
+import score.annotation.Optional;
 
 import java.math.BigInteger;
 import java.util.List;
@@ -79,8 +80,8 @@ public class BTPMessageVerifierUnitTest extends TestBase {
     @Order(1)
     @Test
     public void scenario1() throws Exception {
-        successCase(SUCCESS_RELAY_MESSAGE1, SUCCESS_MESSAGES1);
-        successCase(SUCCESS_RELAY_MESSAGE2, SUCCESS_MESSAGES2);
+        successCase(SUCCESS_RELAY_MESSAGE1, SUCCESS_MESSAGES1, 0);
+        successCase(SUCCESS_RELAY_MESSAGE2, SUCCESS_MESSAGES2, 0);
     }
 
     /***
@@ -98,7 +99,9 @@ public class BTPMessageVerifierUnitTest extends TestBase {
                 2,
                 Address.fromString(bmc.account()),
                 StringUtil.hexToBytes(FAIL_CASE_FIRST_BLOCK_UPDATE),
-                BigInteger.ZERO
+                BigInteger.ZERO,
+                0,
+                BTPMessageVerifier.NETWORK_TYPE_ETH
         );
         var validMsg = "cecdcc028ac9f800c483646f67f800";
         var invalidCurrent = assertThrows(
@@ -284,13 +287,77 @@ public class BTPMessageVerifierUnitTest extends TestBase {
 
     }
 
-    private void successCase(List<String> relayMessages, List<String[]> messages) throws Exception {
+    /***
+     * Scenario7 : success cases with signer cache, smaller than the number of signatures
+     */
+    @Order(7)
+    @Test
+    public void scenario7() throws Exception {
+        successCase(SUCCESS_RELAY_MESSAGE1, SUCCESS_MESSAGES1, 2);
+        successCase(SUCCESS_RELAY_MESSAGE2, SUCCESS_MESSAGES2, 2);
+    }
+
+    /***
+     * Scenario8 : properties are loaded and stored once per relay message,
+     * including the relay messages which have a BlockUpdate and a MessageProof, two MessageProofs or two BlockUpdates
+     */
+    @Order(8)
+    @Test
+    public void scenario8() throws Exception {
+        score = sm.deploy(owner, PropertiesCountingVerifier.class,
+                SRC_NETWORK_ID,
+                2,
+                Address.fromString(bmc.account()),
+                StringUtil.hexToBytes(SUCCESS_RELAY_MESSAGE1.get(0)),
+                BigInteger.ZERO,
+                0,
+                BTPMessageVerifier.NETWORK_TYPE_ETH
+        );
+        var seq = 0;
+        for (int i = 1; i < SUCCESS_RELAY_MESSAGE1.size(); i++) {
+            PropertiesCountingVerifier.loads = 0;
+            PropertiesCountingVerifier.stores = 0;
+            byte[][] ret = (byte[][]) sm.call(bmcAccount, BigInteger.ZERO, score.getAddress(),
+                    "handleRelayMessage",
+                    bmc.toString(), prev.toString(), BigInteger.valueOf(seq), StringUtil.hexToBytes(SUCCESS_RELAY_MESSAGE1.get(i)));
+            seq += ret.length;
+            assertEquals(1, PropertiesCountingVerifier.loads, "loads of relayMessage[" + i + "]");
+            assertEquals(1, PropertiesCountingVerifier.stores, "stores of relayMessage[" + i + "]");
+        }
+    }
+
+    public static class PropertiesCountingVerifier extends BTPMessageVerifier {
+        static int loads;
+        static int stores;
+
+        public PropertiesCountingVerifier(String srcNetworkID, int networkTypeID, Address bmc, byte[] blockHeader,
+                                          BigInteger seqOffset, @Optional int signerCacheSize,
+                                          @Optional String networkType) {
+            super(srcNetworkID, networkTypeID, bmc, blockHeader, seqOffset, signerCacheSize, networkType);
+        }
+
+        @Override
+        public BMVProperties getProperties() {
+            loads++;
+            return super.getProperties();
+        }
+
+        @Override
+        protected void setProperties(BMVProperties properties) {
+            stores++;
+            super.setProperties(properties);
+        }
+    }
+
+    private void successCase(List<String> relayMessages, List<String[]> messages, int signerCacheSize) throws Exception {
         score = sm.deploy(owner, BTPMessageVerifier.class,
                 SRC_NETWORK_ID,
                 2,
                 Address.fromString(bmc.account()),
                 StringUtil.hexToBytes(relayMessages.get(0)),
-                BigInteger.ZERO
+                BigInteger.ZERO,
+                signerCacheSize,
+                BTPMessageVerifier.NETWORK_TYPE_ETH
                 );
         var seq = 0;
         for (int i = 0; i < relayMessages.size() - 1; i++) {
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.btp.bmv.btpblock;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MessageProofTest {
+    static final int ROUNDS = 500;
+
+    /**
+     * proveMessage with whole tree of {@link Node}
+     */
+    static MessageProof.ProveResult proveByNode(ProofNode[] lNodes, byte[][] messages, ProofNode[] rNodes) {
+        Node node = new Node();
+        int left = 0, total = 0;
+        for (ProofNode pn : lNodes) {
+            node = node.add(pn.getNumOfLeaf(), pn.getValue());
+            left += pn.getNumOfLeaf();
+        }
+        for (byte[] message : messages) {
+            node = node.add(1, BTPMessageVerifier.hash(message));
+            total++;
+        }
+        for (ProofNode pn : rNodes) {
+            node = node.add(pn.getNumOfLeaf(), pn.getValue());
+            total += pn.getNumOfLeaf();
+        }
+        node.ensureHash(false);
+        total += left;
+        assertEquals(total, node.getNumOfLeaf());
+        node.verify();
+        return new MessageProof.ProveResult(node.getValue(), left, total);
+    }
+
+    static ProofNode proofNode(Random random, int numOfLeaf) {
+        byte[] value = new byte[32];
+        random.nextBytes(value);
+        return new ProofNode(numOfLeaf, value);
+    }
+
+    static byte[][] messages(Random random, int size) {
+        byte[][] messages = new byte[size][];
+        for (int i = 0; i < size; i++) {
+            messages[i] = new byte[1 + random.nextInt(16)];
+            random.nextBytes(messages[i]);
+        }
+        return messages;
+    }
+
+    /**
+     * nodes of power of two in descending order which sum up to given number, as relay gives
+     */
+    static ProofNode[] decompose(Random random, int numOfLeaf) {
+        List<ProofNode> nodes = new ArrayList<>();
+        for (int bit = Integer.highestOneBit(Math.max(numOfLeaf, 1)); bit > 0; bit >>= 1) {
+            if ((numOfLeaf & bit) != 0) {
+                nodes.add(proofNode(random, bit));
+            }
+        }
+        return nodes.toArray(new ProofNode[0]);
+    }
+
+    static ProofNode[] randomNodes(Random random, int size) {
+        ProofNode[] nodes = new ProofNode[size];
+        for (int i = 0; i < size; i++) {
+            nodes[i] = proofNode(random, 1 + random.nextInt(9));
+        }
+        return nodes;
+    }
+
+    static void assertSameResult(ProofNode[] lNodes, byte[][] messages, ProofNode[] rNodes) {
+        MessageProof.ProveResult expected = null;
+        BMVException expectedException = null;
+        try {
+            expected = proveByNode(lNodes, messages, rNodes);
+        } catch (BMVException e) {
+            expectedException = e;
+        }
+        var messageProof = new MessageProof(lNodes, messages, rNodes);
+        if (expectedException != null) {
+            assertThrows(BMVException.class, messageProof::proveMessage);
+        } else {
+            var result = messageProof.proveMessage();
+            assertArrayEquals(expected.hash, result.hash);
+            assertEquals(expected.offset, result.offset);
+            assertEquals(expected.total, result.total);
+        }
+    }
+
+    @Test
+    void sameAsNodeWithAlignedProofNodes() {
+        Random random = new Random(1);
+        for (int i = 0; i < ROUNDS; i++) {
+            assertSameResult(
+                    decompose(random, random.nextInt(64)),
+                    messages(random, random.nextInt(20)),
+                    decompose(random, random.nextInt(64)));
+        }
+    }
+
+    @Test
+    void sameAsNodeWithRandomProofNodes() {
+        Random random = new Random(2);
+        for (int i = 0; i < ROUNDS; i++) {
+            assertSameResult(
+                    randomNodes(random, random.nextInt(4)),
+                    messages(random, random.nextInt(10)),
+                    randomNodes(random, random.nextInt(4)));
+        }
+    }
+
+    @Test
+    void sameErrorMessageAsNode() {
+        Random random = new Random(3);
+        var lNodes = new ProofNode[]{proofNode(random, 3)};
+        var messages = messages(random, 1);
+        var e = assertThrows(BMVException.class,
+                () -> proveByNode(lNodes, messages, new ProofNode[0]));
+        var e2 = assertThrows(BMVException.class,
+                () -> new MessageProof(lNodes, messages, new ProofNode[0]).proveMessage());
+        assertEquals(e.getMessage(), e2.getMessage());
+
+        var rNodes = new ProofNode[]{proofNode(random, 2)};
+        e = assertThrows(BMVException.class,
+                () -> proveByNode(new ProofNode[0], messages, rNodes));
+        e2 = assertThrows(BMVException.class,
+                () -> new MessageProof(new ProofNode[0], messages, rNodes).proveMessage());
+        assertEquals(e.getMessage(), e2.getMessage());
+    }
+
+    @Test
+    void emptyMessageProof() {
+        var result = new MessageProof(new ProofNode[0], new byte[0][], new ProofNode[0]).proveMessage();
+        assertNull(result.hash);
+        assertEquals(0, result.total);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.btp.bmv.btpblock;
+
+import com.iconloop.score.test.Account;
+import com.iconloop.score.test.Score;
+import com.iconloop.score.test.ServiceManager;
+import com.iconloop.score.test.TestBase;
+import foundation.icon.score.util.SignerCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import score.annotation.External;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SignerCacheTest extends TestBase {
+    static final ServiceManager sm = getServiceManager();
+    static final Account owner = sm.createAccount();
+    static final Random random = new Random(1);
+    Score score;
+
+    public static class SignerCacheScore {
+        @External(readonly = true)
+        public byte[] get(int size, byte[] msgHash, byte[] signature) {
+            SignerCache cache = new SignerCache("signer", size);
+            return cache.get(cache.keyOf(msgHash, signature));
+        }
+
+        @External
+        public void put(int size, byte[] msgHash, byte[] signature, byte[] signer) {
+            SignerCache cache = new SignerCache("signer", size);
+            cache.put(cache.keyOf(msgHash, signature), signer);
+        }
+
+        @External
+        public void shrink(int size, int oldSize) {
+            new SignerCache("signer", size).shrink(oldSize);
+        }
+    }
+
+    static class Entry {
+        final byte[] msgHash = bytes(32);
+        final byte[] signature = bytes(65);
+        final byte[] signer = bytes(20);
+
+        static byte[] bytes(int len) {
+            byte[] b = new byte[len];
+            random.nextBytes(b);
+            return b;
+        }
+    }
+
+    @BeforeEach
+    void setup() throws Exception {
+        score = sm.deploy(owner, SignerCacheScore.class);
+    }
+
+    void put(int size, Entry e) {
+        score.invoke(owner, "put", size, e.msgHash, e.signature, e.signer);
+    }
+
+    byte[] get(int size, Entry e) {
+        return (byte[]) score.call("get", size, e.msgHash, e.signature);
+    }
+
+    @Test
+    void getAfterPut() {
+        Entry e = new Entry();
+        assertNull(get(2, e));
+        put(2, e);
+        assertArrayEquals(e.signer, get(2, e));
+
+        Entry other = new Entry();
+        assertNull(get(2, other));
+        // same message hash with the other signature
+        assertNull(score.call("get", 2, e.msgHash, other.signature));
+    }
+
+    @Test
+    void evictOldest() {
+        Entry[] entries = new Entry[]{new Entry(), new Entry(), new Entry(), new Entry()};
+        put(2, entries[0]);
+        put(2, entries[1]);
+        put(2, entries[2]);
+        assertNull(get(2, entries[0]));
+        assertArrayEquals(entries[1].signer, get(2, entries[1]));
+        assertArrayEquals(entries[2].signer, get(2, entries[2]));
+
+        put(2, entries[3]);
+        assertNull(get(2, entries[1]));
+        assertArrayEquals(entries[2].signer, get(2, entries[2]));
+        assertArrayEquals(entries[3].signer, get(2, entries[3]));
+    }
+
+    @Test
+    void disabled() {
+        Entry e = new Entry();
+        put(0, e);
+        assertNull(get(0, e));
+        // nothing is written while disabled
+        assertNull(get(1, e));
+    }
+
+    @Test
+    void shrink() {
+        Entry[] entries = new Entry[]{new Entry(), new Entry(), new Entry(), new Entry()};
+        put(3, entries[0]);
+        put(3, entries[1]);
+        put(3, entries[2]);
+        score.invoke(owner, "shrink", 1, 3);
+        assertArrayEquals(entries[0].signer, get(1, entries[0]));
+        assertNull(get(1, entries[1]));
+        assertNull(get(1, entries[2]));
+
+        // ring of new size starts at the first slot
+        put(1, entries[3]);
+        assertNull(get(1, entries[0]));
+        assertArrayEquals(entries[3].signer, get(1, entries[3]));
+    }
+}
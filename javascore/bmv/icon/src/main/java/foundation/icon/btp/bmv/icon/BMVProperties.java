@@ -27,9 +27,13 @@ public class BMVProperties {
 
     private Address bmc;
     private String net;
+    //lastHeight, validators and mta are stored separately,
+    //the fields are kept to read the properties which are stored before separation.
     private long lastHeight;
     private Validators validators;
     private MerkleTreeAccumulator mta;
+    private boolean stopOnQuorum;
+    private int signerCacheSize;
 
     public Address getBmc() {
         return bmc;
@@ -71,6 +75,22 @@ public class BMVProperties {
         this.mta = mta;
     }
 
+    public boolean isStopOnQuorum() {
+        return stopOnQuorum;
+    }
+
+    public void setStopOnQuorum(boolean stopOnQuorum) {
+        this.stopOnQuorum = stopOnQuorum;
+    }
+
+    public int getSignerCacheSize() {
+        return signerCacheSize;
+    }
+
+    public void setSignerCacheSize(int signerCacheSize) {
+        this.signerCacheSize = signerCacheSize;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("BMVProperties{");
@@ -79,6 +99,8 @@ public class BMVProperties {
         sb.append(", lastHeight=").append(lastHeight);
         sb.append(", validators=").append(validators);
         sb.append(", mta=").append(mta);
+        sb.append(", stopOnQuorum=").append(stopOnQuorum);
+        sb.append(", signerCacheSize=").append(signerCacheSize);
         sb.append('}');
         return sb.toString();
     }
@@ -95,12 +117,18 @@ public class BMVProperties {
         obj.setLastHeight(reader.readLong());
         obj.setValidators(reader.readNullable(Validators.class));
         obj.setMta(reader.readNullable(MerkleTreeAccumulator.class));
+        if (reader.hasNext()) {
+            obj.setStopOnQuorum(reader.readBoolean());
+        }
+        if (reader.hasNext()) {
+            obj.setSignerCacheSize(reader.readInt());
+        }
         reader.end();
         return obj;
     }
 
     public void writeObject(ObjectWriter writer) {
-        writer.beginList(5);
+        writer.beginList(7);
         writer.writeNullable(this.getBmc());
         writer.writeNullable(this.getNet());
         writer.write(this.getLastHeight());
@@ -108,6 +136,8 @@ public class BMVProperties {
         writer.writeNullable(validators);
         MerkleTreeAccumulator mta = this.getMta();
         writer.writeNullable(mta);
+        writer.write(this.isStopOnQuorum());
+        writer.write(this.getSignerCacheSize());
         writer.end();
     }
 
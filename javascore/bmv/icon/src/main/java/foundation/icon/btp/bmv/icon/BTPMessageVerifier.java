@@ -20,38 +20,62 @@ import foundation.icon.btp.lib.BMV;
 import foundation.icon.btp.lib.BMVStatus;
 import foundation.icon.btp.lib.BTPAddress;
 import foundation.icon.score.util.Logger;
+import foundation.icon.score.util.SignerCache;
 import foundation.icon.score.util.StringUtil;
 import score.Address;
 import score.Context;
 import score.VarDB;
 import score.annotation.External;
+import score.annotation.Optional;
 import scorex.util.ArrayList;
+import scorex.util.HashMap;
 
 import java.math.BigInteger;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 public class BTPMessageVerifier implements BMV {
     private static final Logger logger = Logger.getLogger(BTPMessageVerifier.class);
 
     private final VarDB<BMVProperties> properties = Context.newVarDB("properties", BMVProperties.class);
+    private final VarDB<Validators> validators = Context.newVarDB("validators", Validators.class);
+    private final VarDB<byte[]> validatorsHash = Context.newVarDB("validatorsHash", byte[].class);
+    private final VarDB<Long> lastHeight = Context.newVarDB("lastHeight", Long.class);
 
-    public BTPMessageVerifier(Address _bmc, String _net, String _validators, long _offset) {
+    /**
+     * @param _stopOnQuorum if true, remaining votes are not verified once +2/3 votes are verified
+     * @param _signerCacheSize number of recovered signers to be cached, zero disables the cache
+     */
+    public BTPMessageVerifier(Address _bmc, String _net, String _validators, long _offset,
+                              @Optional boolean _stopOnQuorum, @Optional int _signerCacheSize) {
         BMVProperties properties = getProperties();
+        MerkleTreeAccumulatorDB mtaDB = getMta();
+        if (properties.getMta() != null) {
+            //move the values which are stored in properties before separation
+            mtaDB.importFrom(properties.getMta());
+            setLastHeight(properties.getLastHeight());
+            properties.setMta(null);
+            properties.setValidators(null);
+            properties.setLastHeight(0);
+        }
         properties.setBmc(_bmc);
         properties.setNet(_net);
-        Validators validators = Validators.fromString(_validators);
-        properties.setValidators(validators);
-        if (properties.getLastHeight() == 0) {
-            properties.setLastHeight(_offset);
-        }
-        if (properties.getMta() == null) {
-            MerkleTreeAccumulator mta = new MerkleTreeAccumulator();
-            mta.setHeight(_offset);
-            mta.setOffset(_offset);
-            properties.setMta(mta);
+        properties.setStopOnQuorum(_stopOnQuorum);
+        if (_signerCacheSize < 0) {
+            throw BMVException.unknown("invalid signerCacheSize");
         }
+        getSignerCache(_signerCacheSize).shrink(properties.getSignerCacheSize());
+        properties.setSignerCacheSize(_signerCacheSize);
         setProperties(properties);
+        setValidators(Validators.fromString(_validators));
+        if (getLastHeight() == 0) {
+            setLastHeight(_offset);
+        }
+        if (!mtaDB.isInitialized()) {
+            mtaDB.initialize(_offset);
+        }
+        mtaDB.flush();
     }
 
     static byte[] hash(byte[] bytes) {
@@ -71,24 +95,61 @@ public class BTPMessageVerifier implements BMV {
         this.properties.set(properties);
     }
 
+    public Validators getValidators() {
+        return validators.get();
+    }
+
+    public void setValidators(Validators validators) {
+        this.validators.set(validators);
+        this.validatorsHash.set(hash(validators.toBytes()));
+    }
+
+    SignerCache getSignerCache(int size) {
+        return new SignerCache("signer", size);
+    }
+
+    static Address recoverAddress(SignerCache cache, byte[] msg, byte[] sig) {
+        byte[] key = cache.keyOf(msg, sig);
+        byte[] cached = cache.get(key);
+        if (cached != null) {
+            return new Address(cached);
+        }
+        Address address = recoverAddress(msg, sig, true);
+        cache.put(key, address.toByteArray());
+        return address;
+    }
+
+    public MerkleTreeAccumulatorDB getMta() {
+        return new MerkleTreeAccumulatorDB("mta");
+    }
+
+    public long getLastHeight() {
+        return lastHeight.getOrDefault(0L);
+    }
+
+    public void setLastHeight(long lastHeight) {
+        this.lastHeight.set(lastHeight);
+    }
+
     @External
     public byte[][] handleRelayMessage(String _bmc, String _prev, BigInteger _seq, byte[] _msg) {
         BTPAddress curAddr = BTPAddress.valueOf(_bmc);
         BTPAddress prevAddr = BTPAddress.valueOf(_prev);
-        checkAccessible(curAddr, prevAddr);
+        BMVProperties properties = getProperties();
+        checkAccessible(properties, curAddr, prevAddr);
 
         RelayMessage relayMessage = RelayMessage.fromBytes(_msg);
         BlockUpdate[] blockUpdates = relayMessage.getBlockUpdates();
         BlockProof blockProof = relayMessage.getBlockProof();
         ReceiptProof[] receiptProofs = relayMessage.getReceiptProofs();
         BlockHeader lastBlockHeader;
-        BMVProperties properties = getProperties();
-        MerkleTreeAccumulator mta = properties.getMta();
+        MerkleTreeAccumulatorDB mta = getMta();
         if (blockUpdates != null && blockUpdates.length > 0) {
-            Validators validators = verifyBlockUpdates(blockUpdates, mta, properties.getValidators());
-            properties.setMta(mta);
+            Validators validators = verifyBlockUpdates(blockUpdates, mta, getValidators(),
+                    properties.isStopOnQuorum(), getSignerCache(properties.getSignerCacheSize()));
+            mta.flush();
             if (validators != null) {
-                properties.setValidators(validators);
+                setValidators(validators);
             }
             lastBlockHeader = blockUpdates[blockUpdates.length - 1].getBlockHeader();
         } else if (blockProof != null) {
@@ -106,8 +167,7 @@ public class BTPMessageVerifier implements BMV {
                 throw BMVException.unknown("invalid RelayMessage, BlockHeader has not receiptHash");
             }
             byte[] receiptHash = lastBlockHeader.getResult().getReceiptHash();
-            for(ReceiptProof receiptProof : receiptProofs) {
-                Receipt receipt = proveReceiptProof(receiptProof, receiptHash);
+            for(Receipt receipt : proveReceiptProofs(receiptProofs, receiptHash)) {
                 for(EventLog eventLog : receipt.getEventLogs()) {
                     if(!(prevAddr.account().equals(eventLog.getAddress().toString()))) {
                         continue;
@@ -129,7 +189,7 @@ public class BTPMessageVerifier implements BMV {
                 }
             }
             if (msgs.size() > 0) {
-                properties.setLastHeight(lastBlockHeader.getHeight());
+                setLastHeight(lastBlockHeader.getHeight());
                 ret = new byte[msgs.size()][];
                 int i = 0;
                 for (byte[] msg : msgs) {
@@ -137,51 +197,47 @@ public class BTPMessageVerifier implements BMV {
                 }
             }
         }
-
-        if ((blockUpdates != null && blockUpdates.length > 0) || ret.length > 0) {
-            setProperties(properties);
-        }
         return ret;
     }
 
-    private Receipt proveReceiptProof(ReceiptProof receiptProof, byte[] receiptHash) {
+    private Receipt[] proveReceiptProofs(ReceiptProof[] receiptProofs, byte[] receiptHash) {
         try {
-            byte[] serializedReceipt = MerklePatriciaTree.prove(
-                    receiptHash,
-                    MerklePatriciaTree.encodeKey(receiptProof.getIndex()),
-                    receiptProof.getProofs().getProofs());
-            Receipt receipt = Receipt.fromBytes(serializedReceipt);
-            byte[] eventLogsHash = receipt.getEventLogsHash();
-            MPTProof[] eventProofs = receiptProof.getEventProofs();
-            if (eventProofs != null) {
-                EventLog[] eventLogs = new EventLog[eventProofs.length];
-                int i=0;
-                for(MPTProof eventProof : eventProofs){
-                    byte[] serializedEventLog = MerklePatriciaTree.prove(
-                            eventLogsHash,
-                            MerklePatriciaTree.encodeKey(eventProof.getIndex()),
-                            eventProof.getProofs().getProofs());
-                    EventLog eventLog = EventLog.fromBytes(serializedEventLog);
-                    eventLogs[i++] = eventLog;
+            //verified nodes are shared among all of receipt proofs and event proofs
+            Map<String, MerklePatriciaTree.Node> cache = new HashMap<>();
+            byte[][] serializedReceipts = MerklePatriciaTree.prove(receiptHash, receiptProofs, cache);
+            Receipt[] receipts = new Receipt[receiptProofs.length];
+            for (int i = 0; i < receiptProofs.length; i++) {
+                Receipt receipt = Receipt.fromBytes(serializedReceipts[i]);
+                MPTProof[] eventProofs = receiptProofs[i].getEventProofs();
+                if (eventProofs != null) {
+                    byte[][] serializedEventLogs = MerklePatriciaTree.prove(
+                            receipt.getEventLogsHash(), eventProofs, cache);
+                    EventLog[] eventLogs = new EventLog[eventProofs.length];
+                    for (int j = 0; j < eventProofs.length; j++) {
+                        eventLogs[j] = EventLog.fromBytes(serializedEventLogs[j]);
+                    }
+                    receipt.setEventLogs(eventLogs);
                 }
-                receipt.setEventLogs(eventLogs);
+                receipts[i] = receipt;
             }
-            return receipt;
+            return receipts;
         } catch (MerklePatriciaTree.MPTException e) {
             throw BMVException.invalidMPT(e.getMessage());
         }
     }
 
-    private Validators verifyBlockUpdates(BlockUpdate[] blockUpdates, MerkleTreeAccumulator mta, Validators validators) {
+    private Validators verifyBlockUpdates(BlockUpdate[] blockUpdates, MerkleTreeAccumulatorDB mta, Validators validators,
+                                          boolean stopOnQuorum, SignerCache signerCache) {
         boolean isValidatorsUpdate = false;
-        byte[] validatorHash = hash(validators.toBytes());
+        byte[] validatorHash = validatorsHash.get();
         for(BlockUpdate blockUpdate : blockUpdates) {
             BlockHeader blockHeader = blockUpdate.getBlockHeader();
             long blockHeight = blockHeader.getHeight();
             long nextHeight = mta.getHeight() + 1;
             if (nextHeight == blockHeight) {
                 byte[] blockHash = hash(blockHeader.toBytes());
-                verifyVotes(blockUpdate.getVotes(), blockHeight, blockHash, validators);
+                verifyVotes(blockUpdate.getVotes(), blockHeight, blockHash, validators, stopOnQuorum,
+                        signerCache);
                 byte[] nextValidatorHash = blockHeader.getNextValidatorHash();
                 if (!(Arrays.equals(validatorHash, nextValidatorHash))) {
                     Validators nextValidators = blockUpdate.getNextValidators();
@@ -207,7 +263,7 @@ public class BTPMessageVerifier implements BMV {
         return isValidatorsUpdate ? validators : null;
     }
 
-    private void verifyBlockProof(BlockProof blockProof, MerkleTreeAccumulator mta) {
+    private void verifyBlockProof(BlockProof blockProof, MerkleTreeAccumulatorDB mta) {
         BlockWitness blockWitness = blockProof.getBlockWitness();
         if (blockWitness == null) {
             throw BMVException.invalidBlockProof("not exists witness");
@@ -229,7 +285,8 @@ public class BTPMessageVerifier implements BMV {
         }
     }
 
-    private void verifyVotes(Votes votes, long blockHeight, byte[] blockHash, Validators validators) {
+    private void verifyVotes(Votes votes, long blockHeight, byte[] blockHash, Validators validators,
+                             boolean stopOnQuorum, SignerCache signerCache) {
         if (votes == null) {
             logger.println("verifyVotes","invalidBlockUpdate", "not exists votes");
             throw BMVException.invalidBlockUpdate("not exists votes");
@@ -240,34 +297,40 @@ public class BTPMessageVerifier implements BMV {
         voteMessage.setVoteType(VoteMessage.VOTE_TYPE_PRECOMMIT);
         voteMessage.setBlockId(blockHash);
         voteMessage.setPartSetId(votes.getPartSetId());
-        List<Address> addresses = new ArrayList<>();
+        int quorum = validators.size() * 2 / 3;
+        boolean[] voted = new boolean[validators.size()];
+        int count = 0;
         for(Vote vote : votes.getItems()) {
+            if (stopOnQuorum && count > quorum) {
+                break;
+            }
             voteMessage.setTimestamp(vote.getTimestamp());
             byte[] voteMessageHash = hash(voteMessage.toBytes());
-            Address address = recoverAddress(voteMessageHash, vote.getSignature(), true);
-            if (!validators.contains(address)) {
+            Address address = recoverAddress(signerCache, voteMessageHash, vote.getSignature());
+            int idx = validators.indexOf(address);
+            if (idx < 0) {
                 logger.println("verifyVotes","invalidVotes", "invalid signature",
                         "messageHash:", StringUtil.toString(voteMessageHash),
                         "signature:", StringUtil.toString(vote.getSignature()),
                         "address:",  StringUtil.toString(address.toString()));
                 throw BMVException.invalidVotes("invalid signature");
             }
-            if (addresses.contains(address)) {
+            if (voted[idx]) {
                 logger.println("verifyVotes","invalidVotes", "duplicated vote");
                 throw BMVException.invalidVotes("duplicated vote");
             } else {
-                addresses.add(address);
+                voted[idx] = true;
+                count++;
             }
         }
 
-        if (addresses.size() <= (validators.getAddresses().length * 2 / 3)) {
+        if (count <= quorum) {
             logger.println("verifyVotes","invalidVotes", "require votes +2/3");
             throw BMVException.invalidVotes("require votes +2/3");
         }
     }
 
-    private void checkAccessible(BTPAddress curAddr, BTPAddress fromAddr) {
-        BMVProperties properties = getProperties();
+    private void checkAccessible(BMVProperties properties, BTPAddress curAddr, BTPAddress fromAddr) {
         if (!properties.getNet().equals(fromAddr.net())) {
             throw BMVException.unknown("not acceptable from");
         } else if (!Context.getCaller().equals(properties.getBmc())) {
@@ -279,12 +342,11 @@ public class BTPMessageVerifier implements BMV {
 
     @External(readonly = true)
     public BMVStatus getStatus() {
-        BMVProperties properties = getProperties();
-        MerkleTreeAccumulator mta = properties.getMta();
+        MerkleTreeAccumulatorDB mta = getMta();
         BMVStatus s = new BMVStatus();
         s.setHeight(mta.getHeight());
         s.setExtra(new BMVStatusExtra(
-                mta.getOffset(), properties.getLastHeight()).toBytes());
+                mta.getOffset(), getLastHeight()).toBytes());
         return s;
     }
 
@@ -16,6 +16,7 @@
 
 package foundation.icon.btp.bmv.icon;
 
+import foundation.icon.score.util.RLPSlice;
 import score.ByteArrayObjectWriter;
 import score.Context;
 import score.ObjectReader;
@@ -82,6 +83,20 @@ public class BlockProof {
         writer.end();
     }
 
+    public static BlockProof fromSlice(RLPSlice slice) {
+        BlockProof obj = new BlockProof();
+        RLPSlice.Items items = slice.items();
+        RLPSlice blockHeaderSlice = items.next();
+        if (!blockHeaderSlice.isNull()) {
+            obj.setBlockHeader(blockHeaderSlice.decode().newObjectReader().read(BlockHeader.class));
+        }
+        RLPSlice blockWitnessSlice = items.next();
+        if (!blockWitnessSlice.isNull()) {
+            obj.setBlockWitness(blockWitnessSlice.newObjectReader().read(BlockWitness.class));
+        }
+        return obj;
+    }
+
     public static BlockProof fromBytes(byte[] bytes) {
         ObjectReader reader = Context.newByteArrayObjectReader("RLPn", bytes);
         return BlockProof.readObject(reader);
@@ -16,6 +16,7 @@
 
 package foundation.icon.btp.bmv.icon;
 
+import foundation.icon.score.util.RLPSlice;
 import score.ByteArrayObjectWriter;
 import score.Context;
 import score.ObjectReader;
@@ -115,6 +116,27 @@ public class BlockUpdate {
         writer.end();
     }
 
+    /**
+     * Only the bytes of BlockHeader, Votes and Validators are copied to decode
+     */
+    public static BlockUpdate fromSlice(RLPSlice slice) {
+        BlockUpdate obj = new BlockUpdate();
+        RLPSlice.Items items = slice.items();
+        RLPSlice blockHeaderSlice = items.next();
+        if (!blockHeaderSlice.isNull()) {
+            obj.setBlockHeader(blockHeaderSlice.decode().newObjectReader().read(BlockHeader.class));
+        }
+        RLPSlice votesSlice = items.next();
+        if (!votesSlice.isNull()) {
+            obj.setVotes(votesSlice.decode().newObjectReader().read(Votes.class));
+        }
+        RLPSlice nextValidatorsSlice = items.next();
+        if (!nextValidatorsSlice.isNull()) {
+            obj.setNextValidators(nextValidatorsSlice.decode().newObjectReader().read(Validators.class));
+        }
+        return obj;
+    }
+
     public static BlockUpdate fromBytes(byte[] bytes) {
         ObjectReader reader = Context.newByteArrayObjectReader("RLPn", bytes);
         return BlockUpdate.readObject(reader);
@@ -16,6 +16,7 @@
 
 package foundation.icon.btp.bmv.icon;
 
+import foundation.icon.score.util.RLPSlice;
 import score.ByteArrayObjectWriter;
 import score.Context;
 import score.ObjectReader;
@@ -82,6 +83,17 @@ public class MPTProof {
         writer.end();
     }
 
+    public static MPTProof fromSlice(RLPSlice slice) {
+        MPTProof obj = new MPTProof();
+        RLPSlice.Items items = slice.items();
+        obj.setIndex(items.next().readLong());
+        RLPSlice proofsSlice = items.next();
+        if (!proofsSlice.isNull()) {
+            obj.setProofs(Proofs.fromSlice(proofsSlice.decode()));
+        }
+        return obj;
+    }
+
     public static MPTProof fromBytes(byte[] bytes) {
         ObjectReader reader = Context.newByteArrayObjectReader("RLPn", bytes);
         return MPTProof.readObject(reader);
@@ -21,8 +21,10 @@ import foundation.icon.score.util.StringUtil;
 import score.ByteArrayObjectWriter;
 import score.Context;
 import score.ObjectReader;
+import scorex.util.HashMap;
 
 import java.util.Arrays;
+import java.util.Map;
 
 public class MerklePatriciaTree {
     public static class MPTException extends RuntimeException {
@@ -42,9 +44,35 @@ public class MerklePatriciaTree {
     }
 
     public static byte[] prove(byte[] rootHash, byte[] key, byte[][] proofs) {
+        return prove(rootHash, key, proofs, null);
+    }
+
+    /**
+     * @param cache Map&lt;HexOfHash, Node&gt; of verified nodes which is shared among the proofs,
+     *              a node in the cache is used without hashing and decoding the proof again
+     */
+    public static byte[] prove(byte[] rootHash, byte[] key, byte[][] proofs, Map<String, Node> cache) {
         byte[] nibbles = bytesToNibbles(key, 0, null);
         Node node = new Node(rootHash);
-        return node.prove(nibbles, proofs, 0);
+        return node.prove(nibbles, proofs, 0, cache);
+    }
+
+    public static byte[][] prove(byte[] rootHash, MPTProof[] proofs) {
+        return prove(rootHash, proofs, new HashMap<>());
+    }
+
+    /**
+     * Proves all of given proofs against one root, each distinct node is hashed and decoded once.
+     *
+     * @return values in the order of given proofs
+     */
+    public static byte[][] prove(byte[] rootHash, MPTProof[] proofs, Map<String, Node> cache) {
+        byte[][] values = new byte[proofs.length][];
+        for (int i = 0; i < proofs.length; i++) {
+            values[i] = prove(rootHash, encodeKey(proofs[i].getIndex()),
+                    proofs[i].getProofs().getProofs(), cache);
+        }
+        return values;
     }
 
     public static byte[] bytesToNibbles(byte[] bytes, int from, byte[] nibbles) {
@@ -141,28 +169,42 @@ public class MerklePatriciaTree {
         }
 
         public byte[] prove(byte[] nibbles, byte[][] proofs, int i) {
+            return prove(nibbles, proofs, i, null);
+        }
+
+        public byte[] prove(byte[] nibbles, byte[][] proofs, int i, Map<String, Node> cache) {
             if (isHash()) {
-                byte[] serialized = proofs[i];
-                byte[] hash = hash(serialized);
-                if (!Arrays.equals(this.hash, hash)) {
-                    throw new MPTException("mismatch hash");
+                String key = cache == null ? null : StringUtil.bytesToHex(this.hash);
+                Node node = key == null ? null : cache.get(key);
+                if (node == null) {
+                    if (i >= proofs.length) {
+                        throw new MPTException("not enough proofs");
+                    }
+                    byte[] serialized = proofs[i];
+                    byte[] hash = hash(serialized);
+                    if (!Arrays.equals(this.hash, hash)) {
+                        throw new MPTException("mismatch hash");
+                    }
+                    node = Node.fromBytes(serialized);
+                    node.hash = hash;
+                    node.serialized = serialized;
+                    if (key != null) {
+                        cache.put(key, node);
+                    }
                 }
-                Node node = Node.fromBytes(serialized);
-                node.hash = hash;
-                node.serialized = serialized;
-                return node.prove(nibbles, proofs, i+1);
+                return node.prove(nibbles, proofs, i+1, cache);
             } else if (isExtension()) {
                 int cnt = ArrayUtil.matchCount(this.nibbles, nibbles);
                 if (cnt < this.nibbles.length) {
                     throw new MPTException("mismatch nibbles on extension");
                 }
-                return children[0].prove(Arrays.copyOfRange(nibbles, cnt, nibbles.length), proofs, i);
+                return children[0].prove(Arrays.copyOfRange(nibbles, cnt, nibbles.length), proofs, i, cache);
             } else if (isBranch()) {
                 if(nibbles.length == 0) {
                     return data;
                 } else {
                     Node node = children[nibbles[0]];
-                    return node.prove(Arrays.copyOfRange(nibbles, 1, nibbles.length), proofs, i);
+                    return node.prove(Arrays.copyOfRange(nibbles, 1, nibbles.length), proofs, i, cache);
                 }
             } else {
                 int cnt = ArrayUtil.matchCount(this.nibbles, nibbles);
@@ -0,0 +1,349 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.btp.bmv.icon;
+
+import foundation.icon.score.util.StringUtil;
+import score.Context;
+import score.DictDB;
+import score.VarDB;
+import scorex.util.ArrayList;
+import scorex.util.HashMap;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MerkleTreeAccumulator which stores each root and each cache entry in its own slot,
+ * so that adding a hash touches only the slots of the carried roots and one slot of the cache.
+ * Slots are read on demand, and the changed slots are written once by {@link #flush()}.
+ */
+public class MerkleTreeAccumulatorDB {
+    private static final int HASH_LEN = 32;
+
+    //MerkleTreeAccumulator without roots and cache
+    private final VarDB<MerkleTreeAccumulator> header;
+    private final VarDB<Integer> rootLength;
+    //Map<RootIdx, Root>
+    private final DictDB<Integer, byte[]> roots;
+    //Map<CacheIdx, Hash>
+    private final DictDB<Integer, byte[]> cache;
+
+    private final MerkleTreeAccumulator meta;
+    private int rootLen;
+    private boolean metaChanged;
+    private boolean rootLenChanged;
+    //Map<RootIdx, Root> which is loaded or changed
+    private final Map<Integer, byte[]> rootSlots = new HashMap<>();
+    private final List<Integer> changedRoots = new ArrayList<>();
+    //Map<CacheIdx, Hash> which is loaded or changed
+    private final Map<Integer, byte[]> cacheSlots = new HashMap<>();
+    private final List<Integer> changedCache = new ArrayList<>();
+
+    public MerkleTreeAccumulatorDB(String id) {
+        this.header = Context.newVarDB(id + "Header", MerkleTreeAccumulator.class);
+        this.rootLength = Context.newVarDB(id + "RootLength", Integer.class);
+        this.roots = Context.newDictDB(id + "Roots", byte[].class);
+        this.cache = Context.newDictDB(id + "Cache", byte[].class);
+        MerkleTreeAccumulator meta = header.get();
+        this.meta = meta == null ? new MerkleTreeAccumulator() : meta;
+        this.rootLen = rootLength.getOrDefault(0);
+    }
+
+    public boolean isInitialized() {
+        return metaChanged || header.get() != null;
+    }
+
+    public void initialize(long offset) {
+        meta.setHeight(offset);
+        meta.setOffset(offset);
+        metaChanged = true;
+    }
+
+    /**
+     * Moves roots and cache of whole stored MerkleTreeAccumulator into the slots
+     */
+    public void importFrom(MerkleTreeAccumulator mta) {
+        meta.setHeight(mta.getHeight());
+        meta.setOffset(mta.getOffset());
+        meta.setRootSize(mta.getRootSize());
+        meta.setCacheSize(mta.getCacheSize());
+        meta.setAllowNewerWitness(mta.getAllowNewerWitness());
+        metaChanged = true;
+        byte[][] roots = mta.getRoots();
+        int len = roots == null ? 0 : roots.length;
+        for (int i = 0; i < len; i++) {
+            setRoot(i, roots[i]);
+        }
+        for (int i = len; i < rootLen; i++) {
+            setRoot(i, null);
+        }
+        setRootLen(len);
+        if (meta.isCacheEnabled()) {
+            byte[][] cache = mta.getCache();
+            int cacheLen = cache == null ? 0 : cache.length;
+            for (int i = 0; i < meta.getCacheSize(); i++) {
+                setCache(i, i < cacheLen ? cache[i] : null);
+            }
+            Integer cacheIdx = mta.getCacheIdx();
+            meta.setCacheIdx(cacheIdx == null || cacheIdx >= meta.getCacheSize() ? 0 : cacheIdx);
+        }
+    }
+
+    public long getHeight() {
+        return meta.getHeight();
+    }
+
+    public long getOffset() {
+        return meta.getOffset();
+    }
+
+    public int getRootLength() {
+        return rootLen;
+    }
+
+    public byte[][] getRoots() {
+        byte[][] roots = new byte[rootLen][];
+        for (int i = 0; i < rootLen; i++) {
+            roots[i] = getRootSlot(i);
+        }
+        return roots;
+    }
+
+    private byte[] getRootSlot(int idx) {
+        if (rootSlots.containsKey(idx)) {
+            return rootSlots.get(idx);
+        }
+        byte[] v = roots.get(idx);
+        rootSlots.put(idx, v);
+        return v;
+    }
+
+    private void setRoot(int idx, byte[] hash) {
+        rootSlots.put(idx, hash);
+        if (!changedRoots.contains(idx)) {
+            changedRoots.add(idx);
+        }
+    }
+
+    private void setRootLen(int len) {
+        if (rootLen != len) {
+            rootLen = len;
+            rootLenChanged = true;
+        }
+    }
+
+    private byte[] getCacheSlot(int idx) {
+        if (cacheSlots.containsKey(idx)) {
+            return cacheSlots.get(idx);
+        }
+        byte[] v = cache.get(idx);
+        cacheSlots.put(idx, v);
+        return v;
+    }
+
+    private void setCache(int idx, byte[] hash) {
+        cacheSlots.put(idx, hash);
+        if (!changedCache.contains(idx)) {
+            changedCache.add(idx);
+        }
+    }
+
+    private static byte[] concatAndHash(byte[] b1, byte[] b2) {
+        byte[] data = new byte[HASH_LEN * 2];
+        System.arraycopy(b1, 0, data, 0, HASH_LEN);
+        System.arraycopy(b2, 0, data, HASH_LEN, HASH_LEN);
+        return Context.hash("sha3-256", data);
+    }
+
+    private static void verify(byte[][] witness, int witnessLen, byte[] root, byte[] hash, long idx) {
+        for (int i = 0; i < witnessLen; i++) {
+            if (idx % 2 == 0) {
+                hash = concatAndHash(hash, witness[i]);
+            } else {
+                hash = concatAndHash(witness[i], hash);
+            }
+            idx = idx / 2;
+        }
+        if (!Arrays.equals(root, hash)) {
+            throw new MTAException("invalid witness"+
+                    ", root: "+StringUtil.toString(root) + ", hash: "+StringUtil.toString(hash));
+        }
+    }
+
+    public void verify(byte[][] witness, byte[] hash, long height, long at) {
+        long curHeight = meta.getHeight();
+        long offset = meta.getOffset();
+        if (curHeight == at) {
+            byte[] root = getRoot(witness.length);
+            verify(witness, witness.length, root, hash, height - 1 - offset);
+        } else if (curHeight < at) {
+            if (!meta.isAllowNewerWitness()) {
+                throw new MTAException.InvalidWitnessNewerException("not allowed newer witness");
+            }
+            if (curHeight < height) {
+                throw new MTAException("given witness for newer node");
+            }
+            int rootIdx = getRootIdxByHeight(height);
+            byte[] root = getRoot(rootIdx);
+            verify(witness, rootIdx, root, hash, height - 1 - offset);
+        } else {
+            // acc: new, wit: old
+            // rebuild witness is not supported, but able to verify by cache if enabled
+            if (meta.isCacheEnabled() && (curHeight - height - 1) < meta.getCacheSize()) {
+                if (!hasCache(hash)) {
+                    throw new MTAException("invalid old witness");
+                }
+            } else {
+                throw new MTAException.InvalidWitnessOldException("not allowed old witness");
+            }
+        }
+    }
+
+    private int getRootIdxByHeight(long height) {
+        long offset = meta.getOffset();
+        if (height <= offset) {
+            throw new MTAException("given height is out of range");
+        }
+        long idx = height - 1 - offset;
+        int rootIdx = rootLen - 1;
+        while (rootIdx >= 0) {
+            if (getRootSlot(rootIdx) != null) {
+                long bitFlag = 1L << rootIdx;
+                if (idx < bitFlag) {
+                    break;
+                }
+                idx -= bitFlag;
+            }
+            rootIdx--;
+        }
+        if (rootIdx < 0) {
+            throw new MTAException("given height is out of range");
+        }
+        return rootIdx;
+    }
+
+    private byte[] getRoot(int idx) {
+        if (idx < 0 || idx >= rootLen) {
+            throw new MTAException("root idx is out of range");
+        } else {
+            return getRootSlot(idx);
+        }
+    }
+
+    private void appendRoot(byte[] hash) {
+        setRoot(rootLen, hash);
+        setRootLen(rootLen + 1);
+    }
+
+    public void add(byte[] hash) {
+        putCache(hash);
+        if (meta.getHeight() == meta.getOffset()) {
+            appendRoot(hash);
+        } else {
+            boolean isAdded = false;
+            int pruningIdx = (meta.isRootSizeLimitEnabled() ? meta.getRootSize() : 0) - 1;
+            for (int i = 0; i < rootLen; i++) {
+                byte[] root = getRootSlot(i);
+                if (root == null) {
+                    setRoot(i, hash);
+                    isAdded = true;
+                    break;
+                } else {
+                    if (i == pruningIdx) {
+                        setRoot(i, hash);
+                        meta.setOffset(meta.getOffset() + (1L << i));
+                        isAdded = true;
+                        break;
+                    } else {
+                        hash = concatAndHash(root, hash);
+                        setRoot(i, null);
+                    }
+                }
+            }
+            if (!isAdded) {
+                appendRoot(hash);
+            }
+        }
+        meta.setHeight(meta.getHeight() + 1);
+        metaChanged = true;
+    }
+
+    private boolean hasCache(byte[] hash) {
+        if (meta.isCacheEnabled()) {
+            int cacheSize = meta.getCacheSize();
+            for (int i = 0; i < cacheSize; i++) {
+                if (Arrays.equals(getCacheSlot(i), hash)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void putCache(byte[] hash) {
+        if (meta.isCacheEnabled()) {
+            int cacheIdx = meta.getCacheIdx() == null ? 0 : meta.getCacheIdx();
+            setCache(cacheIdx++, hash);
+            if (cacheIdx >= meta.getCacheSize()) {
+                cacheIdx = 0;
+            }
+            meta.setCacheIdx(cacheIdx);
+            metaChanged = true;
+        }
+    }
+
+    /**
+     * Writes changed slots, each slot once
+     */
+    public void flush() {
+        for (Integer idx : changedRoots) {
+            if (idx < rootLen) {
+                roots.set(idx, rootSlots.get(idx));
+            } else {
+                roots.set(idx, null);
+            }
+        }
+        changedRoots.clear();
+        if (rootLenChanged) {
+            rootLength.set(rootLen);
+            rootLenChanged = false;
+        }
+        for (Integer idx : changedCache) {
+            cache.set(idx, cacheSlots.get(idx));
+        }
+        changedCache.clear();
+        if (metaChanged) {
+            header.set(meta);
+            metaChanged = false;
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("MerkleTreeAccumulatorDB{");
+        sb.append("height=").append(meta.getHeight());
+        sb.append(", rootLength=").append(rootLen);
+        sb.append(", offset=").append(meta.getOffset());
+        sb.append(", rootSize=").append(meta.getRootSize());
+        sb.append(", cacheSize=").append(meta.getCacheSize());
+        sb.append(", allowNewerWitness=").append(meta.getAllowNewerWitness());
+        sb.append(", cacheIdx=").append(meta.getCacheIdx());
+        sb.append('}');
+        return sb.toString();
+    }
+}
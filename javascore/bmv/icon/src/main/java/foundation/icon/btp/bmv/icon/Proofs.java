@@ -16,6 +16,7 @@
 
 package foundation.icon.btp.bmv.icon;
 
+import foundation.icon.score.util.RLPSlice;
 import foundation.icon.score.util.StringUtil;
 import score.ByteArrayObjectWriter;
 import score.Context;
@@ -79,6 +80,23 @@ public class Proofs {
         }
     }
 
+    public static Proofs fromSlice(RLPSlice slice) {
+        Proofs obj = new Proofs();
+        if (!slice.isNull()) {
+            List<byte[]> proofsList = new ArrayList<>();
+            RLPSlice.Items items = slice.items();
+            while(items.hasNext()) {
+                proofsList.add(items.next().readNullableByteArray());
+            }
+            byte[][] proofs = new byte[proofsList.size()][];
+            for(int i=0; i<proofsList.size(); i++) {
+                proofs[i] = proofsList.get(i);
+            }
+            obj.setProofs(proofs);
+        }
+        return obj;
+    }
+
     public static Proofs fromBytes(byte[] bytes) {
         ObjectReader reader = Context.newByteArrayObjectReader("RLPn", bytes);
         return Proofs.readObject(reader);
@@ -16,6 +16,7 @@
 
 package foundation.icon.btp.bmv.icon;
 
+import foundation.icon.score.util.RLPSlice;
 import foundation.icon.score.util.StringUtil;
 import score.ByteArrayObjectWriter;
 import score.Context;
@@ -99,6 +100,31 @@ public class ReceiptProof extends MPTProof {
         writer.end();
     }
 
+    public static ReceiptProof fromSlice(RLPSlice slice) {
+        ReceiptProof obj = new ReceiptProof();
+        RLPSlice.Items items = slice.items();
+        obj.setIndex(items.next().readLong());
+        RLPSlice proofsSlice = items.next();
+        if (!proofsSlice.isNull()) {
+            obj.setProofs(Proofs.fromSlice(proofsSlice.decode()));
+        }
+        RLPSlice eventProofsSlice = items.next();
+        if (!eventProofsSlice.isNull()) {
+            List<MPTProof> eventProofsList = new ArrayList<>();
+            RLPSlice.Items eventProofsItems = eventProofsSlice.items();
+            while(eventProofsItems.hasNext()) {
+                RLPSlice v = eventProofsItems.next();
+                eventProofsList.add(v.isNull() ? null : MPTProof.fromSlice(v));
+            }
+            MPTProof[] eventProofs = new MPTProof[eventProofsList.size()];
+            for(int i=0; i<eventProofsList.size(); i++) {
+                eventProofs[i] = eventProofsList.get(i);
+            }
+            obj.setEventProofs(eventProofs);
+        }
+        return obj;
+    }
+
     public static ReceiptProof fromBytes(byte[] bytes) {
         ObjectReader reader = Context.newByteArrayObjectReader("RLPn", bytes);
         return ReceiptProof.readObject(reader);
@@ -16,6 +16,7 @@
 
 package foundation.icon.btp.bmv.icon;
 
+import foundation.icon.score.util.RLPSlice;
 import foundation.icon.score.util.StringUtil;
 import score.ByteArrayObjectWriter;
 import score.Context;
@@ -164,8 +165,45 @@ public class RelayMessage {
     }
 
     public static RelayMessage fromBytes(byte[] bytes) {
-        ObjectReader reader = Context.newByteArrayObjectReader("RLPn", bytes);
-        return RelayMessage.readObject(reader);
+        return RelayMessage.fromSlice(RLPSlice.of(bytes));
+    }
+
+    public static RelayMessage fromSlice(RLPSlice slice) {
+        RelayMessage obj = new RelayMessage();
+        RLPSlice.Items items = slice.items();
+        RLPSlice blockUpdatesSlice = items.next();
+        if (!blockUpdatesSlice.isNull()) {
+            List<BlockUpdate> blockUpdatesList = new ArrayList<>();
+            RLPSlice.Items blockUpdatesItems = blockUpdatesSlice.items();
+            while(blockUpdatesItems.hasNext()) {
+                RLPSlice v = blockUpdatesItems.next();
+                blockUpdatesList.add(v.isNull() ? null : BlockUpdate.fromSlice(v.decode()));
+            }
+            BlockUpdate[] blockUpdates = new BlockUpdate[blockUpdatesList.size()];
+            for(int i=0; i<blockUpdatesList.size(); i++) {
+                blockUpdates[i] = blockUpdatesList.get(i);
+            }
+            obj.setBlockUpdates(blockUpdates);
+        }
+        RLPSlice blockProofSlice = items.next();
+        if (!blockProofSlice.isNull()) {
+            obj.setBlockProof(BlockProof.fromSlice(blockProofSlice.decode()));
+        }
+        RLPSlice receiptProofsSlice = items.next();
+        if (!receiptProofsSlice.isNull()) {
+            List<ReceiptProof> receiptProofsList = new ArrayList<>();
+            RLPSlice.Items receiptProofsItems = receiptProofsSlice.items();
+            while(receiptProofsItems.hasNext()) {
+                RLPSlice v = receiptProofsItems.next();
+                receiptProofsList.add(v.isNull() ? null : ReceiptProof.fromSlice(v.decode()));
+            }
+            ReceiptProof[] receiptProofs = new ReceiptProof[receiptProofsList.size()];
+            for(int i=0; i<receiptProofsList.size(); i++) {
+                receiptProofs[i] = receiptProofsList.get(i);
+            }
+            obj.setReceiptProofs(receiptProofs);
+        }
+        return obj;
     }
 
     public byte[] toBytes() {
@@ -20,27 +20,49 @@ import foundation.icon.score.util.StringUtil;
 import score.*;
 import scorex.util.ArrayList;
 import scorex.util.Base64;
+import scorex.util.HashMap;
 
 import java.util.List;
+import java.util.Map;
 
 public class Validators {
     private Address[] addresses;
 
+    //Map<Address, IndexOfAddresses>, not serialized
+    private Map<Address, Integer> indexes;
+
     public Address[] getAddresses() {
         return addresses;
     }
 
     public void setAddresses(Address[] addresses) {
         this.addresses = addresses;
+        this.indexes = null;
     }
 
-    public boolean contains(Address target) {
-        for(Address address : addresses) {
-            if (address.equals(target)){
-                return true;
+    public int size() {
+        return addresses.length;
+    }
+
+    /**
+     * Returns the position of the validator, builds index at the first call.
+     *
+     * @param target address of validator
+     * @return position in addresses or -1 if not exists
+     */
+    public int indexOf(Address target) {
+        if (indexes == null) {
+            indexes = new HashMap<>();
+            for (int i = 0; i < addresses.length; i++) {
+                indexes.put(addresses[i], i);
             }
         }
-        return false;
+        Integer i = indexes.get(target);
+        return i == null ? -1 : i;
+    }
+
+    public boolean contains(Address target) {
+        return indexOf(target) >= 0;
     }
 
     /**
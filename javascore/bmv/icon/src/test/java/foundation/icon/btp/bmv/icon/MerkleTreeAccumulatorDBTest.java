@@ -0,0 +1,231 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.btp.bmv.icon;
+
+import com.iconloop.score.test.Account;
+import com.iconloop.score.test.Score;
+import com.iconloop.score.test.ServiceManager;
+import com.iconloop.score.test.TestBase;
+import org.junit.jupiter.api.Test;
+import score.Context;
+import score.annotation.External;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MerkleTreeAccumulatorDBTest extends TestBase {
+    static final ServiceManager sm = getServiceManager();
+    static final Account owner = sm.createAccount();
+    static final long OFFSET = 10;
+    static final int NUM_OF_HASHES = 100;
+
+    public static class MTAScore {
+        static final String MTA_ID = "mta";
+
+        @External
+        public void importFrom(byte[] mta) {
+            MerkleTreeAccumulatorDB mtaDB = new MerkleTreeAccumulatorDB(MTA_ID);
+            mtaDB.importFrom(MerkleTreeAccumulator.fromBytes(mta));
+            mtaDB.flush();
+        }
+
+        @External
+        public void add(byte[][] hashes) {
+            MerkleTreeAccumulatorDB mtaDB = new MerkleTreeAccumulatorDB(MTA_ID);
+            for (byte[] hash : hashes) {
+                mtaDB.add(hash);
+            }
+            mtaDB.flush();
+        }
+
+        @External(readonly = true)
+        public byte[][] getRoots() {
+            return new MerkleTreeAccumulatorDB(MTA_ID).getRoots();
+        }
+
+        @External(readonly = true)
+        public long getHeight() {
+            return new MerkleTreeAccumulatorDB(MTA_ID).getHeight();
+        }
+
+        @External(readonly = true)
+        public long getOffset() {
+            return new MerkleTreeAccumulatorDB(MTA_ID).getOffset();
+        }
+
+        @External(readonly = true)
+        public String verify(byte[][] witness, byte[] hash, long height, long at) {
+            try {
+                new MerkleTreeAccumulatorDB(MTA_ID).verify(witness, hash, height, at);
+                return "";
+            } catch (MTAException e) {
+                return e.getClass().getName() + ":" + e.getMessage();
+            }
+        }
+    }
+
+    static String verify(MerkleTreeAccumulator mta, byte[][] witness, byte[] hash, long height, long at) {
+        try {
+            mta.verify(witness, hash, height, at);
+            return "";
+        } catch (MTAException e) {
+            return e.getClass().getName() + ":" + e.getMessage();
+        }
+    }
+
+    static byte[] concatAndHash(byte[] b1, byte[] b2) {
+        byte[] data = new byte[b1.length + b2.length];
+        System.arraycopy(b1, 0, data, 0, b1.length);
+        System.arraycopy(b2, 0, data, b1.length, b2.length);
+        return Context.hash("sha3-256", data);
+    }
+
+    /**
+     * build witness of given height against the roots of the accumulator
+     */
+    static byte[][] witness(MerkleTreeAccumulator mta, List<byte[]> hashes, long height) {
+        byte[][] roots = mta.getRoots();
+        long idx = height - 1 - mta.getOffset();
+        long start = mta.getOffset() - OFFSET;
+        for (int i = roots.length - 1; i >= 0; i--) {
+            if (roots[i] == null) {
+                continue;
+            }
+            long size = 1L << i;
+            if (idx >= size) {
+                idx -= size;
+                start += size;
+                continue;
+            }
+            List<byte[]> level = new ArrayList<>(hashes.subList((int) start, (int) (start + size)));
+            byte[][] witness = new byte[i][];
+            for (int j = 0; j < i; j++) {
+                witness[j] = level.get((int) (idx ^ 1));
+                List<byte[]> next = new ArrayList<>();
+                for (int k = 0; k < level.size(); k += 2) {
+                    next.add(concatAndHash(level.get(k), level.get(k + 1)));
+                }
+                level = next;
+                idx = idx / 2;
+            }
+            assertArrayEquals(roots[i], level.get(0));
+            return witness;
+        }
+        throw new IllegalArgumentException("out of range height:" + height);
+    }
+
+    static void assertSameRoots(MerkleTreeAccumulator expected, Score score) {
+        byte[][] expectedRoots = expected.getRoots();
+        byte[][] roots = (byte[][]) score.call("getRoots");
+        assertEquals(expectedRoots == null ? 0 : expectedRoots.length, roots.length);
+        for (int i = 0; i < roots.length; i++) {
+            assertArrayEquals(expectedRoots[i], roots[i]);
+        }
+        assertEquals(expected.getHeight(), score.call("getHeight"));
+        assertEquals(expected.getOffset(), score.call("getOffset"));
+    }
+
+    static void assertSameVerification(MerkleTreeAccumulator expected, Score score,
+                                       byte[][] witness, byte[] hash, long height, long at) {
+        assertEquals(verify(expected, witness, hash, height, at),
+                score.call("verify", witness, hash, height, at));
+    }
+
+    void run(MerkleTreeAccumulator mta, List<byte[]> hashes, int batchSize) throws Exception {
+        Score score = sm.deploy(owner, MTAScore.class);
+        sm.call(owner, BigInteger.ZERO, score.getAddress(), "importFrom", (Object) mta.toBytes());
+        Random random = new Random(mta.getHeight() + batchSize);
+        while (hashes.size() < NUM_OF_HASHES) {
+            byte[][] batch = new byte[batchSize][];
+            for (int i = 0; i < batchSize; i++) {
+                batch[i] = new byte[32];
+                random.nextBytes(batch[i]);
+                mta.add(batch[i]);
+                hashes.add(batch[i]);
+            }
+            sm.call(owner, BigInteger.ZERO, score.getAddress(), "add", (Object) batch);
+            assertSameRoots(mta, score);
+
+            long at = mta.getHeight();
+            long height = mta.getOffset() + 1 + random.nextInt((int) (at - mta.getOffset()));
+            byte[] hash = hashes.get((int) (height - 1 - OFFSET));
+            byte[][] witness = witness(mta, hashes, height);
+            assertEquals("", verify(mta, witness, hash, height, at));
+            assertSameVerification(mta, score, witness, hash, height, at);
+            if (witness.length > 0) {
+                byte[][] invalid = Arrays.copyOf(witness, witness.length);
+                invalid[0] = hash;
+                assertSameVerification(mta, score, invalid, hash, height, at);
+            }
+            //newer witness
+            assertSameVerification(mta, score, witness, hash, height, at + 1);
+            //old witness
+            assertSameVerification(mta, score, witness, hash, at - 1, at - 1);
+            assertSameVerification(mta, score, witness, hashes.get(hashes.size() - 2), at - 1, at - 1);
+        }
+    }
+
+    static MerkleTreeAccumulator newMTA() {
+        MerkleTreeAccumulator mta = new MerkleTreeAccumulator();
+        mta.setHeight(OFFSET);
+        mta.setOffset(OFFSET);
+        return mta;
+    }
+
+    @Test
+    void sameAsMerkleTreeAccumulator() throws Exception {
+        run(newMTA(), new ArrayList<>(), 1);
+        run(newMTA(), new ArrayList<>(), 7);
+    }
+
+    @Test
+    void sameAsMerkleTreeAccumulatorWithCache() throws Exception {
+        MerkleTreeAccumulator mta = newMTA();
+        mta.setCacheSize(8);
+        mta.ensureCache();
+        mta.setAllowNewerWitness(true);
+        run(mta, new ArrayList<>(), 3);
+    }
+
+    @Test
+    void sameAsMerkleTreeAccumulatorWithRootSize() throws Exception {
+        MerkleTreeAccumulator mta = newMTA();
+        mta.setRootSize(4);
+        mta.setAllowNewerWitness(true);
+        run(mta, new ArrayList<>(), 5);
+    }
+
+    @Test
+    void importFromStoredMerkleTreeAccumulator() throws Exception {
+        MerkleTreeAccumulator mta = newMTA();
+        mta.setCacheSize(4);
+        mta.ensureCache();
+        List<byte[]> hashes = new ArrayList<>();
+        for (int i = 0; i < 13; i++) {
+            byte[] hash = new byte[32];
+            hash[0] = (byte) i;
+            mta.add(hash);
+            hashes.add(hash);
+        }
+        run(mta, hashes, 2);
+    }
+}
@@ -63,6 +63,26 @@ public interface BMC {
     @External(readonly = true)
     Map getVerifiers();
 
+    /**
+     * Get registered verifiers in the page.
+     *
+     * @param _offset Integer ( Index of the first verifier, 0 or the continuation cursor of the previous page )
+     * @param _limit  Integer ( Maximum number of verifiers in the page )
+     * @return A dictionary with the verifiers in the page as "verifiers" and the continuation cursor as "next".
+     * "next" is -1 if there is no more page.
+     * <br>
+     * For Example::
+     * <br>
+     * {
+     * "verifiers": {
+     * "0x1.iconee": "cx72eaed466599ca5ea377637c6fa2c5c0978537da"
+     * },
+     * "next": "0x1"
+     * }
+     */
+    @External(readonly = true)
+    Map getVerifiersPage(int _offset, int _limit);
+
     /**
      * Registers the smart contract for the service.
      * Called by the operator to manage the BTP network.
@@ -94,6 +114,24 @@ public interface BMC {
     @External(readonly = true)
     Map getServices();
 
+    /**
+     * Get registered services in the page.
+     *
+     * @param _offset Integer ( Index of the first service, 0 or the continuation cursor of the previous page )
+     * @param _limit  Integer ( Maximum number of services in the page )
+     * @return A dictionary with the services in the page as "services" and the continuation cursor as "next".
+     * "next" is -1 if there is no more page.
+     * <br>For example::<br>
+     * {
+     * "services": {
+     * "token": "cx72eaed466599ca5ea377637c6fa2c5c0978537da"
+     * },
+     * "next": "-0x1"
+     * }
+     */
+    @External(readonly = true)
+    Map getServicesPage(int _offset, int _limit);
+
     /**
      * If it generates the event related to the link, the relay shall handle the event to deliver BTP Message to the BMC.
      * If the link is already registered, or its network is already registered then it fails.
@@ -138,6 +176,24 @@ public interface BMC {
     @External(readonly = true)
     String[] getLinks();
 
+    /**
+     * Get registered links in the page.
+     *
+     * @param _offset Integer ( Index of the first link, 0 or the continuation cursor of the previous page )
+     * @param _limit  Integer ( Maximum number of links in the page )
+     * @return A dictionary with the list of links in the page as "links" and the continuation cursor as "next".
+     * "next" is -1 if there is no more page.
+     * <br>For Example::<br>
+     * {
+     * "links": [
+     * "btp://0x1.iconee/cx9f8a75111fd611710702e76440ba9adaffef8656"
+     * ],
+     * "next": "-0x1"
+     * }
+     */
+    @External(readonly = true)
+    Map getLinksPage(int _offset, int _limit);
+
     /**
      * Add route to the BMC.
      * May fail if there more than one BMC for the network.
@@ -171,6 +227,27 @@ public interface BMC {
     @External(readonly = true)
     Map getRoutes();
 
+    /**
+     * Get routing information in the page.
+     * Reachable networks of the links are followed by the routes which are added by the operator,
+     * if a destination appears twice, the latter is used as {@link #getRoutes()}.
+     *
+     * @param _offset Integer ( Index of the first route, 0 or the continuation cursor of the previous page )
+     * @param _limit  Integer ( Maximum number of routes in the page )
+     * @return A dictionary with the routing information in the page as "routes" and the continuation cursor as "next".
+     * "next" is -1 if there is no more page.
+     *
+     * <br>For Example::<br>
+     * {
+     *   "routes": {
+     *     "0x2.iconee": "0x1.iconee"
+     *   },
+     *   "next": "-0x1"
+     * }
+     */
+    @External(readonly = true)
+    Map getRoutesPage(int _offset, int _limit);
+
     /**
      * Sends the message to a specific network.
      * Only allowed to be called by registered BSHs.
@@ -238,6 +315,18 @@ public interface BMC {
     @External(readonly = true)
     BigInteger getFee(String _to, boolean _response);
 
+    /**
+     * Gets the fees to the target networks
+     * It reverts if the one of target networks is not reachable.
+     * If the target network does not exist in the fee table, then its fee is zero.
+     *
+     * @param _to       String[] ( List of BTP Network Address of the destination BMC )
+     * @param _response Boolean ( Whether the responding fee is included )
+     * @return Integer[] ( List of the fees of sending a message to given destination networks )
+     */
+    @External(readonly = true)
+    BigInteger[] getFees(String[] _to, boolean _response);
+
     /**
      * Gets the fee table
      * It reverts if the one of destination networks is not reachable.
@@ -302,6 +391,15 @@ public interface BMC {
     @External(readonly = true)
     BigInteger getReward(String _network, Address _addr);
 
+    /**
+     * It returns the amount of claimable reward of all networks to the target
+     *
+     * @param _addr    Address ( Address of the relay )
+     * @return A dictionary with the Network Address to claim as key and the claimable reward as value.
+     */
+    @External(readonly = true)
+    Map getRewards(Address _addr);
+
     /**
      * Sets the address to handle the remaining reward fee.
      * @param _addr Address ( the address to handle the remaining reward fee )
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.btp.lib;
+
+import foundation.icon.score.client.ScoreClient;
+import foundation.icon.score.client.ScoreInterface;
+import score.annotation.External;
+
+import java.math.BigInteger;
+
+@ScoreInterface
+@ScoreClient
+public interface FeeListener {
+    /**
+     * Handles the change of the fee table of BMC, so that BSH is able to keep the fees without querying.
+     * Called by BMC for the services which are registered as the fee listener, when the fee table is changed.
+     * Accepts the change only from the BMC.
+     *
+     * @param _nets     String[] ( List of BTP Network Address of the destination BMC )
+     * @param _forward  Integer[] ( List of the fees without the responding fee )
+     * @param _response Integer[] ( List of the fees including the responding fee )
+     */
+    @External
+    void handleFeeChanged(String[] _nets, BigInteger[] _forward, BigInteger[] _response);
+
+    /**
+     * Handles the removal of the destinations from the fee table of BMC,
+     * the fees of them should be queried to BMC instead of the kept ones.
+     * Called by BMC for the services which are registered as the fee listener.
+     * Accepts the change only from the BMC.
+     *
+     * @param _nets String[] ( List of BTP Network Address of the destination BMC )
+     */
+    @External
+    void handleFeeRemoved(String[] _nets);
+}
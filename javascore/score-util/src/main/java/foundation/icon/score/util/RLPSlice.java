@@ -0,0 +1,293 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.score.util;
+
+import score.Context;
+import score.ObjectReader;
+
+import java.math.BigInteger;
+
+/**
+ * Read-only view of an RLPn encoded item, given as offset and length in a byte array.
+ * Items of a list and RLP encoded bytes in a byte string are returned as views of the same array,
+ * so that bytes are copied only when a value is read.
+ */
+public class RLPSlice {
+    private final byte[] data;
+    private final int offset;
+    private final int length;
+    private final int contentOffset;
+    private final int contentLength;
+    private final boolean list;
+
+    private RLPSlice(byte[] data, int offset, int length, int contentOffset, int contentLength, boolean list) {
+        this.data = data;
+        this.offset = offset;
+        this.length = length;
+        this.contentOffset = contentOffset;
+        this.contentLength = contentLength;
+        this.list = list;
+    }
+
+    public static RLPSlice of(byte[] data) {
+        return of(data, 0, data.length);
+    }
+
+    /**
+     * @param offset offset of the item
+     * @param limit  length of the bytes which must be filled with the item
+     */
+    public static RLPSlice of(byte[] data, int offset, int limit) {
+        RLPSlice slice = readItem(data, offset, offset + limit);
+        if (slice.length != limit) {
+            throw new IllegalStateException("remaining bytes after item");
+        }
+        return slice;
+    }
+
+    private static RLPSlice readItem(byte[] data, int offset, int end) {
+        if (offset >= end) {
+            throw new IllegalStateException("no item");
+        }
+        int b = data[offset] & 0xff;
+        if (b < 0x80) {
+            return new RLPSlice(data, offset, 1, offset, 1, false);
+        } else if (b <= 0xb7) {
+            return newSlice(data, offset, end, 1, b - 0x80, false);
+        } else if (b < 0xc0) {
+            int lenOfLen = b - 0xb7;
+            return newSlice(data, offset, end, 1 + lenOfLen, readLength(data, offset + 1, lenOfLen, end), false);
+        } else if (b <= 0xf7) {
+            return newSlice(data, offset, end, 1, b - 0xc0, true);
+        } else {
+            int lenOfLen = b - 0xf7;
+            return newSlice(data, offset, end, 1 + lenOfLen, readLength(data, offset + 1, lenOfLen, end), true);
+        }
+    }
+
+    private static RLPSlice newSlice(byte[] data, int offset, int end, int headerLength, int contentLength,
+                                     boolean list) {
+        // compare before adding, the sum could overflow with the length close to Integer.MAX_VALUE
+        if (contentLength < 0 || contentLength > end - offset - headerLength) {
+            throw new IllegalStateException("out of range");
+        }
+        return new RLPSlice(data, offset, headerLength + contentLength, offset + headerLength, contentLength, list);
+    }
+
+    private static int readLength(byte[] data, int offset, int lenOfLen, int end) {
+        if (lenOfLen > 4 || offset + lenOfLen > end) {
+            throw new IllegalStateException("invalid length");
+        }
+        int len = 0;
+        for (int i = 0; i < lenOfLen; i++) {
+            len = (len << 8) | (data[offset + i] & 0xff);
+        }
+        return len;
+    }
+
+    public boolean isList() {
+        return list;
+    }
+
+    /**
+     * RLPn encodes null as a list with long form header which has zero length, 0xf800
+     */
+    public boolean isNull() {
+        return list && contentLength == 0 && length == 2;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public int getContentLength() {
+        return contentLength;
+    }
+
+    public Items items() {
+        if (!list) {
+            throw new IllegalStateException("not a list");
+        }
+        return new Items(this);
+    }
+
+    /**
+     * @return view of RLP encoded item in the content of byte string
+     */
+    public RLPSlice decode() {
+        ensureBytes();
+        return of(data, contentOffset, contentLength);
+    }
+
+    private void ensureBytes() {
+        if (list) {
+            throw new IllegalStateException("not a byte string");
+        }
+    }
+
+    public byte[] readByteArray() {
+        ensureBytes();
+        byte[] bytes = new byte[contentLength];
+        System.arraycopy(data, contentOffset, bytes, 0, contentLength);
+        return bytes;
+    }
+
+    public byte[] readNullableByteArray() {
+        return isNull() ? null : readByteArray();
+    }
+
+    public String readString() {
+        return new String(readByteArray());
+    }
+
+    public BigInteger readBigInteger() {
+        ensureBytes();
+        if (contentLength == 0) {
+            return BigInteger.ZERO;
+        }
+        return new BigInteger(readByteArray());
+    }
+
+    public long readLong() {
+        ensureBytes();
+        if (contentLength > 8) {
+            throw new IllegalStateException("out of range for long");
+        }
+        long v = 0;
+        for (int i = 0; i < contentLength; i++) {
+            v = (v << 8) | (data[contentOffset + i] & 0xff);
+        }
+        if (contentLength > 0 && contentLength < 8 && data[contentOffset] < 0) {
+            v |= -1L << (contentLength * 8);
+        }
+        return v;
+    }
+
+    public int readInt() {
+        long v = readLong();
+        if (v < Integer.MIN_VALUE || v > Integer.MAX_VALUE) {
+            throw new IllegalStateException("out of range for int");
+        }
+        return (int) v;
+    }
+
+    public boolean readBoolean() {
+        return readLong() != 0;
+    }
+
+    /**
+     * @return copy of whole encoded item including header
+     */
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[length];
+        System.arraycopy(data, offset, bytes, 0, length);
+        return bytes;
+    }
+
+    /**
+     * @return true if the encoded item is same as given bytes
+     */
+    public boolean equalsBytes(byte[] bytes) {
+        if (bytes.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (data[offset + i] != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Encodes the list again with an item replaced, the other items are copied without decoding
+     *
+     * @param item    item of this list
+     * @param encoded RLP encoded item to be placed instead
+     * @return encoded list
+     */
+    public byte[] replace(RLPSlice item, byte[] encoded) {
+        int contentEnd = contentOffset + contentLength;
+        if (!list || item.data != data || item.offset < contentOffset || item.offset + item.length > contentEnd) {
+            throw new IllegalStateException("not an item of the list");
+        }
+        int len = contentLength - item.length + encoded.length;
+        int lenOfLen = 0;
+        if (len > 55) {
+            for (int v = len; v > 0; v >>= 8) {
+                lenOfLen++;
+            }
+        }
+        byte[] bytes = new byte[1 + lenOfLen + len];
+        if (lenOfLen == 0) {
+            bytes[0] = (byte) (0xc0 + len);
+        } else {
+            bytes[0] = (byte) (0xf7 + lenOfLen);
+            for (int i = lenOfLen, v = len; i > 0; i--, v >>= 8) {
+                bytes[i] = (byte) v;
+            }
+        }
+        int pos = 1 + lenOfLen;
+        int before = item.offset - contentOffset;
+        System.arraycopy(data, contentOffset, bytes, pos, before);
+        pos += before;
+        System.arraycopy(encoded, 0, bytes, pos, encoded.length);
+        pos += encoded.length;
+        System.arraycopy(data, item.offset + item.length, bytes, pos, contentEnd - item.offset - item.length);
+        return bytes;
+    }
+
+    /**
+     * For the types which are decoded by {@link ObjectReader}, only the bytes of the item are copied
+     */
+    public ObjectReader newObjectReader() {
+        return Context.newByteArrayObjectReader("RLPn", toByteArray());
+    }
+
+    public static class Items {
+        private final byte[] data;
+        private final int end;
+        private int offset;
+
+        private Items(RLPSlice slice) {
+            this.data = slice.data;
+            this.offset = slice.contentOffset;
+            this.end = slice.contentOffset + slice.contentLength;
+        }
+
+        public boolean hasNext() {
+            return offset < end;
+        }
+
+        public RLPSlice next() {
+            RLPSlice item = readItem(data, offset, end);
+            offset += item.length;
+            return item;
+        }
+
+        /**
+         * Skips remaining items which are optional
+         */
+        public void end() {
+            offset = end;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.score.util;
+
+import score.Context;
+import score.DictDB;
+import score.VarDB;
+
+/**
+ * Bounded cache of signers which are recovered from (message hash, signature).
+ * Entries are kept in a ring of given size, and the oldest entry is evicted when the ring is full.
+ * Cache is disabled if size is zero.
+ */
+public class SignerCache {
+    private static final String HASH = "sha3-256";
+
+    //Map<hash(msgHash|signature), Signer>
+    private final DictDB<byte[], byte[]> signers;
+    //Map<RingIdx, hash(msgHash|signature)>
+    private final DictDB<Integer, byte[]> ring;
+    private final VarDB<Integer> next;
+    private final int size;
+
+    public SignerCache(String id, int size) {
+        this.signers = Context.newDictDB(id + "Signers", byte[].class);
+        this.ring = Context.newDictDB(id + "Ring", byte[].class);
+        this.next = Context.newVarDB(id + "Next", Integer.class);
+        this.size = size;
+    }
+
+    public boolean isEnabled() {
+        return size > 0;
+    }
+
+    /**
+     * @return key of the entry for (message hash, signature), null if disabled
+     */
+    public byte[] keyOf(byte[] msgHash, byte[] signature) {
+        if (!isEnabled()) {
+            return null;
+        }
+        byte[] data = new byte[msgHash.length + signature.length];
+        System.arraycopy(msgHash, 0, data, 0, msgHash.length);
+        System.arraycopy(signature, 0, data, msgHash.length, signature.length);
+        return Context.hash(HASH, data);
+    }
+
+    /**
+     * @param key key from {@link #keyOf(byte[], byte[])}
+     * @return recovered signer, null if not cached or disabled
+     */
+    public byte[] get(byte[] key) {
+        if (key == null) {
+            return null;
+        }
+        return signers.get(key);
+    }
+
+    /**
+     * Puts the signer which is not cached, after {@link #get(byte[])} returns null for the key
+     *
+     * @param key key from {@link #keyOf(byte[], byte[])}
+     */
+    public void put(byte[] key, byte[] signer) {
+        if (key == null) {
+            return;
+        }
+        int idx = next.getOrDefault(0);
+        if (idx >= size) {
+            idx = 0;
+        }
+        byte[] evicted = ring.get(idx);
+        if (evicted != null) {
+            signers.set(evicted, null);
+        }
+        ring.set(idx, key);
+        signers.set(key, signer);
+        next.set(idx + 1 < size ? idx + 1 : 0);
+    }
+
+    /**
+     * Removes the entries which are out of the ring of new size
+     *
+     * @param oldSize size of the ring before
+     */
+    public void shrink(int oldSize) {
+        for (int i = size; i < oldSize; i++) {
+            byte[] key = ring.get(i);
+            if (key != null) {
+                signers.set(key, null);
+                ring.set(i, null);
+            }
+        }
+    }
+}
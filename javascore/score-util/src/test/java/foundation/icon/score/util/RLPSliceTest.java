@@ -0,0 +1,134 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.score.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RLPSliceTest {
+
+    @Test
+    void readItems() {
+        //[0x01, "dog", [], null, 1024, -1, bytes([0x02])]
+        byte[] bytes = StringUtil.hexToBytes("d00183646f67c0f80082040081ff82c102");
+        RLPSlice slice = RLPSlice.of(bytes);
+        assertTrue(slice.isList());
+        assertEquals(bytes.length, slice.getLength());
+
+        RLPSlice.Items items = slice.items();
+        assertEquals(1, items.next().readInt());
+        assertArrayEquals("dog".getBytes(), items.next().readByteArray());
+        RLPSlice empty = items.next();
+        assertTrue(empty.isList());
+        assertFalse(empty.isNull());
+        assertFalse(empty.items().hasNext());
+        RLPSlice nil = items.next();
+        assertTrue(nil.isNull());
+        assertNull(nil.readNullableByteArray());
+        RLPSlice v = items.next();
+        assertEquals(1024, v.readLong());
+        assertEquals(BigInteger.valueOf(1024), v.readBigInteger());
+        v = items.next();
+        assertEquals(-1, v.readLong());
+        assertEquals(BigInteger.ONE.negate(), v.readBigInteger());
+        RLPSlice nested = items.next().decode();
+        assertTrue(nested.isList());
+        assertEquals(2, nested.items().next().readInt());
+        assertFalse(items.hasNext());
+
+        assertArrayEquals(bytes, slice.toByteArray());
+    }
+
+    @Test
+    void readLongForm() {
+        byte[] value = new byte[60];
+        for (int i = 0; i < value.length; i++) {
+            value[i] = (byte) i;
+        }
+        byte[] bytes = new byte[2 + value.length];
+        bytes[0] = (byte) 0xb8;
+        bytes[1] = (byte) value.length;
+        System.arraycopy(value, 0, bytes, 2, value.length);
+        RLPSlice slice = RLPSlice.of(bytes);
+        assertFalse(slice.isList());
+        assertEquals(value.length, slice.getContentLength());
+        assertArrayEquals(value, slice.readByteArray());
+    }
+
+    @Test
+    void replaceItem() {
+        //["dog", [], 1]
+        byte[] bytes = StringUtil.hexToBytes("c683646f67c001");
+        RLPSlice slice = RLPSlice.of(bytes);
+        RLPSlice.Items items = slice.items();
+        assertEquals("dog", items.next().readString());
+        RLPSlice empty = items.next();
+        assertTrue(empty.equalsBytes(StringUtil.hexToBytes("c0")));
+        assertFalse(empty.equalsBytes(StringUtil.hexToBytes("f800")));
+
+        //["dog", null, 1]
+        assertArrayEquals(StringUtil.hexToBytes("c783646f67f80001"),
+                slice.replace(empty, StringUtil.hexToBytes("f800")));
+
+        //["dog", bytes(60), 1], header becomes long form
+        byte[] value = new byte[62];
+        value[0] = (byte) 0xb8;
+        value[1] = 60;
+        byte[] replaced = slice.replace(empty, value);
+        assertEquals((byte) 0xf8, replaced[0]);
+        assertEquals(4 + 62 + 1, replaced[1]);
+        RLPSlice.Items replacedItems = RLPSlice.of(replaced).items();
+        assertEquals("dog", replacedItems.next().readString());
+        assertEquals(60, replacedItems.next().getContentLength());
+        assertEquals(1, replacedItems.next().readInt());
+
+        assertThrows(IllegalStateException.class,
+                () -> slice.replace(RLPSlice.of(StringUtil.hexToBytes("c0")), value));
+    }
+
+    @Test
+    void invalidBytes() {
+        //declared length is longer than bytes
+        assertThrows(IllegalStateException.class,
+                () -> RLPSlice.of(StringUtil.hexToBytes("83646f")));
+        //remaining bytes after item
+        assertThrows(IllegalStateException.class,
+                () -> RLPSlice.of(StringUtil.hexToBytes("0102")));
+        //not a list
+        assertThrows(IllegalStateException.class,
+                () -> RLPSlice.of(StringUtil.hexToBytes("83646f67")).items());
+    }
+
+    @Test
+    void oversizedLongFormHeader() {
+        //length of content is 0x7ffffffd, sum with the length of header overflows
+        assertThrows(IllegalStateException.class,
+                () -> RLPSlice.of(StringUtil.hexToBytes("bb7ffffffd010203")));
+        //nested item
+        RLPSlice slice = RLPSlice.of(StringUtil.hexToBytes("c8bb7ffffffd010203"));
+        assertThrows(IllegalStateException.class, () -> slice.items().next());
+        //list
+        RLPSlice list = RLPSlice.of(StringUtil.hexToBytes("c8fb7ffffffd010203"));
+        assertThrows(IllegalStateException.class, () -> list.items().next());
+        //length of content is negative as int
+        assertThrows(IllegalStateException.class,
+                () -> RLPSlice.of(StringUtil.hexToBytes("bbfffffffd010203")));
+    }
+}
@@ -77,4 +77,10 @@ public interface MockBMC {
     @External
     void handleBTPError(Address _addr, String _src, String _svc, BigInteger _sn, long _code, String _msg);
 
+    @External
+    void handleFeeChanged(Address _addr, String[] _nets, BigInteger[] _forward, BigInteger[] _response);
+
+    @External
+    void handleFeeRemoved(Address _addr, String[] _nets);
+
 }
@@ -187,4 +187,16 @@ public class MockBMCImpl implements MockBMC {
         bsh.handleBTPError(_src, _svc, _sn, _code, _msg);
     }
 
+    @External
+    public void handleFeeChanged(Address _addr, String[] _nets, BigInteger[] _forward, BigInteger[] _response) {
+        FeeListenerScoreInterface listener = new FeeListenerScoreInterface(_addr);
+        listener.handleFeeChanged(_nets, _forward, _response);
+    }
+
+    @External
+    public void handleFeeRemoved(Address _addr, String[] _nets) {
+        FeeListenerScoreInterface listener = new FeeListenerScoreInterface(_addr);
+        listener.handleFeeRemoved(_nets);
+    }
+
 }
@@ -17,6 +17,7 @@
 package foundation.icon.btp.mock;
 
 import foundation.icon.btp.lib.BSH;
+import foundation.icon.btp.lib.FeeListener;
 import foundation.icon.score.client.ScoreClient;
 import score.Address;
 import score.annotation.EventLog;
@@ -29,7 +30,7 @@ import java.math.BigInteger;
  * for BMC
  */
 @ScoreClient
-public interface MockBSH extends BSH {
+public interface MockBSH extends BSH, FeeListener {
 
     @Payable
     @External
@@ -43,4 +44,10 @@ public interface MockBSH extends BSH {
 
     @EventLog
     void HandleBTPError(String _src, String _svc, BigInteger _sn, long _code, String _msg);
+
+    @EventLog
+    void HandleFeeChanged(String _net, BigInteger _forward, BigInteger _response);
+
+    @EventLog
+    void HandleFeeRemoved(String _net);
 }
@@ -44,6 +44,20 @@ public class MockBSHImpl implements MockBSH {
         HandleBTPError(_src, _svc, _sn, _code, _msg);
     }
 
+    @External
+    public void handleFeeChanged(String[] _nets, BigInteger[] _forward, BigInteger[] _response) {
+        for (int i = 0; i < _nets.length; i++) {
+            HandleFeeChanged(_nets[i], _forward[i], _response[i]);
+        }
+    }
+
+    @External
+    public void handleFeeRemoved(String[] _nets) {
+        for (String net : _nets) {
+            HandleFeeRemoved(net);
+        }
+    }
+
     @Payable
     @External
     public void sendMessage(Address _bmc, String _to, String _svc, BigInteger _sn, byte[] _msg) {
@@ -64,4 +78,10 @@ public class MockBSHImpl implements MockBSH {
 
     @EventLog
     public void HandleBTPError(String _src, String _svc, BigInteger _sn, long _code, String _msg) { }
+
+    @EventLog
+    public void HandleFeeChanged(String _net, BigInteger _forward, BigInteger _response) { }
+
+    @EventLog
+    public void HandleFeeRemoved(String _net) { }
 }
@@ -41,6 +41,20 @@ public interface MockBSHIntegrationTest {
                 consumer);
     }
 
+    static Consumer<TransactionResult> handleFeeChangedEvent(
+            Consumer<MockBSHScoreClient.HandleFeeChanged> consumer) {
+        return eventLogChecker(
+                MockBSHScoreClient.HandleFeeChanged::eventLogs,
+                consumer);
+    }
+
+    static Consumer<TransactionResult> handleFeeRemovedEvent(
+            Consumer<MockBSHScoreClient.HandleFeeRemoved> consumer) {
+        return eventLogChecker(
+                MockBSHScoreClient.HandleFeeRemoved::eventLogs,
+                consumer);
+    }
+
     static <T> Consumer<TransactionResult> eventLogChecker(
             ScoreIntegrationTest.EventLogsSupplier<T> supplier, Consumer<T> consumer) {
         return ScoreIntegrationTest.eventLogChecker(
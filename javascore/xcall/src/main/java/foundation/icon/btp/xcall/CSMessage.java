@@ -24,6 +24,7 @@ import score.ObjectWriter;
 public class CSMessage {
     public static final int REQUEST = 1;
     public static final int RESPONSE = 2;
+    public static final int BUNDLE = 3;
 
     private final int type;
     private final byte[] data;
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.btp.xcall;
+
+import score.ByteArrayObjectWriter;
+import score.Context;
+import score.ObjectReader;
+import score.ObjectWriter;
+import scorex.util.ArrayList;
+
+import java.util.List;
+
+/**
+ * List of encoded {@link CSMessageRequest}s to the same destination network,
+ * which is delivered as one {@link CSMessage} of {@link CSMessage#BUNDLE}.
+ */
+public class CSMessageBundle {
+    private final List<byte[]> requests;
+
+    public CSMessageBundle(List<byte[]> requests) {
+        this.requests = requests;
+    }
+
+    public List<byte[]> getRequests() {
+        return requests;
+    }
+
+    public static void writeObject(ObjectWriter w, CSMessageBundle m) {
+        w.beginList(m.requests.size());
+        for (byte[] request : m.requests) {
+            w.write(request);
+        }
+        w.end();
+    }
+
+    public static CSMessageBundle readObject(ObjectReader r) {
+        r.beginList();
+        List<byte[]> requests = new ArrayList<>();
+        while (r.hasNext()) {
+            requests.add(r.readByteArray());
+        }
+        r.end();
+        return new CSMessageBundle(requests);
+    }
+
+    public byte[] toBytes() {
+        ByteArrayObjectWriter writer = Context.newByteArrayObjectWriter("RLPn");
+        CSMessageBundle.writeObject(writer, this);
+        return writer.toByteArray();
+    }
+
+    public static CSMessageBundle fromBytes(byte[] bytes) {
+        ObjectReader reader = Context.newByteArrayObjectReader("RLPn", bytes);
+        return readObject(reader);
+    }
+}
@@ -25,12 +25,15 @@ public class CallRequest {
     private final String to;
     private final byte[] rollback;
     private boolean enabled;
+    // block height of the creation, zero if it's created before the height is stored
+    private final long height;
 
-    public CallRequest(Address from, String to, byte[] rollback) {
+    public CallRequest(Address from, String to, byte[] rollback, long height) {
         this.from = from;
         this.to = to;
         this.rollback = rollback;
         this.enabled = false;
+        this.height = height;
     }
 
     public Address getFrom() {
@@ -45,23 +48,29 @@ public class CallRequest {
         return rollback;
     }
 
+    public long getHeight() {
+        return height;
+    }
+
     public static void writeObject(ObjectWriter w, CallRequest req) {
-        w.beginList(4);
+        w.beginList(5);
         w.write(req.from);
         w.write(req.to);
         w.writeNullable(req.rollback);
         w.write(req.enabled);
+        w.write(req.height);
         w.end();
     }
 
     public static CallRequest readObject(ObjectReader r) {
         r.beginList();
-        CallRequest req = new CallRequest(
-                r.readAddress(),
-                r.readString(),
-                r.readNullable(byte[].class)
-        );
-        if (r.readBoolean()) {
+        Address from = r.readAddress();
+        String to = r.readString();
+        byte[] rollback = r.readNullable(byte[].class);
+        boolean enabled = r.readBoolean();
+        long height = r.hasNext() ? r.readLong() : 0;
+        CallRequest req = new CallRequest(from, to, rollback, height);
+        if (enabled) {
             req.setEnabled();
         }
         r.end();
@@ -114,6 +114,16 @@ public interface CallService {
     @External
     void executeCall(BigInteger _reqId);
 
+    /**
+     * Executes the requested call messages.
+     * The failure of a call doesn't affect the others, and the unknown request id is skipped.
+     * The response is sent right after each call as executeCall does.
+     *
+     * @param _reqIds The request ids
+     */
+    @External
+    void executeCallBatch(BigInteger[] _reqIds);
+
     /**
      * Notifies that the call message has been executed.
      *
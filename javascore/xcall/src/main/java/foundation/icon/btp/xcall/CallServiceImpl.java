@@ -19,7 +19,10 @@ package foundation.icon.btp.xcall;
 import foundation.icon.btp.lib.BMCScoreInterface;
 import foundation.icon.btp.lib.BSH;
 import foundation.icon.btp.lib.BTPAddress;
+import foundation.icon.btp.lib.FeeListener;
 import score.Address;
+import score.ArrayDB;
+import score.BranchDB;
 import score.Context;
 import score.DictDB;
 import score.RevertedException;
@@ -29,12 +32,18 @@ import score.annotation.EventLog;
 import score.annotation.External;
 import score.annotation.Optional;
 import score.annotation.Payable;
+import scorex.util.ArrayList;
 
 import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
 
-public class CallServiceImpl implements BSH, CallService, FeeManage {
+public class CallServiceImpl implements BSH, CallService, FeeManage, FeeListener {
     public static final int MAX_DATA_SIZE = 2048;
     public static final int MAX_ROLLBACK_SIZE = 1024;
+    public static final int MAX_BATCH_SIZE = 32;
+    public static final int MAX_BUNDLE_SIZE = 32;
+    public static final int MAX_PAGE_SIZE = 100;
 
     private final VarDB<Address> bmc = Context.newVarDB("bmc", Address.class);
     private final VarDB<BTPAddress> btpAddress = Context.newVarDB("btpAddress", BTPAddress.class);
@@ -42,12 +51,32 @@ public class CallServiceImpl implements BSH, CallService, FeeManage {
     private final VarDB<BigInteger> reqId = Context.newVarDB("reqId", BigInteger.class);
 
     private final DictDB<BigInteger, CallRequest> requests = Context.newDictDB("requests", CallRequest.class);
+    private final PendingRequests pendingRequests = new PendingRequests("pending");
+    // number of blocks after which the pending request is able to be rolled back
+    private final VarDB<Long> requestTimeout = Context.newVarDB("requestTimeout", Long.class);
+    // requests which are stored before interning the source network
     private final DictDB<BigInteger, CSMessageRequest> proxyReqs = Context.newDictDB("proxyReqs", CSMessageRequest.class);
+    private final DictDB<BigInteger, ProxyRequest> proxyRequests = Context.newDictDB("proxyRequests", ProxyRequest.class);
+    // interned source networks
+    private final DictDB<String, Integer> netIds = Context.newDictDB("netIds", Integer.class);
+    private final DictDB<Integer, String> nets = Context.newDictDB("nets", String.class);
+    private final VarDB<Integer> netCount = Context.newVarDB("netCount", Integer.class);
+
+    // for bundling one-way requests to the same network
+    private final DictDB<String, Integer> bundleSizes = Context.newDictDB("bundleSizes", Integer.class);
+    private final BranchDB<String, ArrayDB<byte[]>> bundles = Context.newBranchDB("bundles", byte[].class);
+    private final BranchDB<String, ArrayDB<BigInteger>> bundleRequestFees =
+            Context.newBranchDB("bundleRequestFees", BigInteger.class);
+    private final DictDB<String, BigInteger> bundleFees = Context.newDictDB("bundleFees", BigInteger.class);
+    private final VarDB<BigInteger> totalBundleFee = Context.newVarDB("totalBundleFee", BigInteger.class);
 
     // for fee-related operations
     private final VarDB<Address> admin = Context.newVarDB("admin", Address.class);
     private final VarDB<Address> feeHandler = Context.newVarDB("feeHandler", Address.class);
     private final VarDB<BigInteger> protocolFee = Context.newVarDB("protocolFee", BigInteger.class);
+    // relay fees which are notified by BMC
+    private final DictDB<String, BigInteger> relayFees = Context.newDictDB("relayFees", BigInteger.class);
+    private final DictDB<String, BigInteger> rollbackRelayFees = Context.newDictDB("rollbackRelayFees", BigInteger.class);
 
     public CallServiceImpl(Address _bmc) {
         // set bmc address only for the first deploy
@@ -65,6 +94,117 @@ public class CallServiceImpl implements BSH, CallService, FeeManage {
         return btpAddress.get().toString();
     }
 
+    @External(readonly=true)
+    public int getBundleSize(String _net) {
+        return bundleSizes.getOrDefault(_net, 0);
+    }
+
+    /**
+     * Sets the number of one-way requests to the network which are sent as one bundle.
+     * The pending requests are sent if the bundle is disabled or full by new size.
+     * Each request still pays the relay fee of a message, and the sum of them is paid with the bundle,
+     * so the bundle reduces the cost of relaying, not the fee of the senders.
+     *
+     * @param _net The network address
+     * @param _size The size of bundle, zero disables the bundle
+     */
+    @External
+    public void setBundleSize(String _net, int _size) {
+        checkCallerOrThrow(admin(), "OnlyAdmin");
+        Context.require(_size >= 0 && _size <= MAX_BUNDLE_SIZE, "InvalidBundleSize");
+        bundleSizes.set(_net, _size == 0 ? null : _size);
+        if (bundles.at(_net).size() >= _size) {
+            flushBundle(_net);
+        }
+    }
+
+    @External(readonly=true)
+    public int getPendingBundle(String _net) {
+        return bundles.at(_net).size();
+    }
+
+    /**
+     * Sends the pending requests to the network as a bundle
+     *
+     * @param _net The network address
+     */
+    @External
+    public void flush(String _net) {
+        Context.require(bundles.at(_net).size() > 0, "NoPendingRequest");
+        flushBundle(_net);
+    }
+
+    /**
+     * Discards the pending requests to the network, and refunds the relay fee to each sender.
+     * It's for the network which is not reachable, so that the bundle could be disabled.
+     * If the sender doesn't accept the refund, the fee is left as the accrued fee.
+     *
+     * @param _net The network address
+     */
+    @External
+    public void discardBundle(String _net) {
+        checkCallerOrThrow(admin(), "OnlyAdmin");
+        ArrayDB<byte[]> bundle = bundles.at(_net);
+        ArrayDB<BigInteger> fees = bundleRequestFees.at(_net);
+        int size = bundle.size();
+        Context.require(size > 0, "NoPendingRequest");
+        BigInteger fee = bundleFees.get(_net);
+        bundleFees.set(_net, null);
+        totalBundleFee.set(totalBundleFee.get().subtract(fee));
+        for (int i = 0; i < size; i++) {
+            CSMessageRequest req = CSMessageRequest.fromBytes(bundle.pop());
+            BigInteger reqFee = fees.pop();
+            Address from = Address.fromString(req.getFrom());
+            if (reqFee.signum() > 0) {
+                try {
+                    Context.transfer(from, reqFee);
+                } catch (UserRevertedException | RevertedException e) {
+                    Context.println("discardBundle: refund failed to " + from);
+                }
+            }
+            CallMessageDiscarded(from, new BTPAddress(_net, req.getTo()).toString(), req.getSn());
+        }
+    }
+
+    private void addToBundle(String net, BigInteger fee, byte[] request) {
+        ArrayDB<byte[]> bundle = bundles.at(net);
+        bundle.add(request);
+        bundleRequestFees.at(net).add(fee);
+        bundleFees.set(net, bundleFees.getOrDefault(net, BigInteger.ZERO).add(fee));
+        totalBundleFee.set(totalBundleFee.getOrDefault(BigInteger.ZERO).add(fee));
+        if (bundle.size() >= getBundleSize(net)) {
+            flushBundle(net);
+        }
+    }
+
+    private void flushBundle(String net) {
+        ArrayDB<byte[]> bundle = bundles.at(net);
+        int size = bundle.size();
+        if (size == 0) {
+            return;
+        }
+        List<byte[]> requests = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            requests.add(bundle.get(i));
+        }
+        ArrayDB<BigInteger> fees = bundleRequestFees.at(net);
+        for (int i = 0; i < size; i++) {
+            bundle.removeLast();
+            fees.removeLast();
+        }
+        BigInteger fee = bundleFees.get(net);
+        bundleFees.set(net, null);
+        totalBundleFee.set(totalBundleFee.get().subtract(fee));
+
+        BigInteger nsn = sendBTPMessage(fee, net, CSMessage.BUNDLE, BigInteger.ZERO,
+                new CSMessageBundle(requests).toBytes());
+        for (byte[] bytes : requests) {
+            CSMessageRequest req = CSMessageRequest.fromBytes(bytes);
+            CallMessageSent(Address.fromString(req.getFrom()),
+                    new BTPAddress(net, req.getTo()).toString(), req.getSn(), nsn);
+        }
+    }
+
     private void checkCallerOrThrow(Address caller, String errMsg) {
         Context.require(Context.getCaller().equals(caller), errMsg);
     }
@@ -88,15 +228,53 @@ public class CallServiceImpl implements BSH, CallService, FeeManage {
         return _sn;
     }
 
-    private BigInteger getNextReqId() {
-        BigInteger _reqId = this.reqId.getOrDefault(BigInteger.ZERO);
-        _reqId = _reqId.add(BigInteger.ONE);
-        this.reqId.set(_reqId);
-        return _reqId;
+    /**
+     * Allocates the range of request ids, the counter is read and written once for the range.
+     *
+     * @param size number of request ids
+     * @return the last request id before the range
+     */
+    private BigInteger allocateReqIds(int size) {
+        BigInteger last = this.reqId.getOrDefault(BigInteger.ZERO);
+        this.reqId.set(last.add(BigInteger.valueOf(size)));
+        return last;
+    }
+
+    private int internNet(String net) {
+        Integer id = netIds.get(net);
+        if (id == null) {
+            id = netCount.getOrDefault(0) + 1;
+            netCount.set(id);
+            netIds.set(net, id);
+            nets.set(id, net);
+        }
+        return id;
+    }
+
+    /**
+     * Removes the request from the storage
+     *
+     * @return the request, null if not exists
+     */
+    private ProxyRequest takeProxyRequest(BigInteger reqId) {
+        ProxyRequest req = proxyRequests.get(reqId);
+        if (req != null) {
+            proxyRequests.set(reqId, null);
+            return req;
+        }
+        CSMessageRequest legacy = proxyReqs.get(reqId);
+        if (legacy == null) {
+            return null;
+        }
+        proxyReqs.set(reqId, null);
+        BTPAddress from = BTPAddress.valueOf(legacy.getFrom());
+        return new ProxyRequest(internNet(from.net()), from.account(), legacy.getTo(), legacy.getSn(),
+                legacy.needRollback(), legacy.getData());
     }
 
     private void cleanupCallRequest(BigInteger sn) {
         requests.set(sn, null);
+        pendingRequests.remove(sn);
     }
 
     @Override
@@ -128,11 +306,17 @@ public class CallServiceImpl implements BSH, CallService, FeeManage {
 
         BigInteger relayFee = value.subtract(protocolFee);
         BigInteger sn = getNextSn();
+        CSMessageRequest msgReq = new CSMessageRequest(caller.toString(), dst.account(), sn, needResponse, _data);
+        if (!needResponse && getBundleSize(dst.net()) > 0) {
+            // CallMessageSent is emitted when the bundle is sent
+            addToBundle(dst.net(), relayFee, msgReq.toBytes());
+            return sn;
+        }
         if (needResponse) {
-            CallRequest req = new CallRequest(caller, dst.toString(), _rollback);
+            CallRequest req = new CallRequest(caller, dst.toString(), _rollback, Context.getBlockHeight());
             requests.set(sn, req);
+            pendingRequests.add(sn);
         }
-        CSMessageRequest msgReq = new CSMessageRequest(caller.toString(), dst.account(), sn, needResponse, _data);
         BigInteger nsn = sendBTPMessage(relayFee, dst.net(), CSMessage.REQUEST,
                 needResponse ? sn : BigInteger.ZERO, msgReq.toBytes());
         CallMessageSent(caller, dst.toString(), sn, nsn);
@@ -142,16 +326,50 @@ public class CallServiceImpl implements BSH, CallService, FeeManage {
     @Override
     @External
     public void executeCall(BigInteger _reqId) {
-        CSMessageRequest req = proxyReqs.get(_reqId);
-        Context.require(req != null, "InvalidRequestId");
         // cleanup
-        proxyReqs.set(_reqId, null);
+        ProxyRequest req = takeProxyRequest(_reqId);
+        Context.require(req != null, "InvalidRequestId");
+
+        String net = nets.get(req.getNet());
+        CSMessageResponse msgRes = executeRequest(_reqId, net, req);
+        // send response only when there was a rollback
+        if (req.needRollback()) {
+            BigInteger sn = req.getSn().negate();
+            sendBTPMessage(BigInteger.ZERO, net, CSMessage.RESPONSE, sn, msgRes.toBytes());
+        }
+    }
 
-        BTPAddress from = BTPAddress.valueOf(req.getFrom());
+    @Override
+    @External
+    public void executeCallBatch(BigInteger[] _reqIds) {
+        Context.require(_reqIds.length > 0 && _reqIds.length <= MAX_BATCH_SIZE, "InvalidBatchSize");
+        for (BigInteger reqId : _reqIds) {
+            ProxyRequest req = takeProxyRequest(reqId);
+            if (req == null) {
+                // executed already or unknown, the others are executed
+                continue;
+            }
+
+            String net = nets.get(req.getNet());
+            CSMessageResponse msgRes = executeRequest(reqId, net, req);
+            // send response only when there was a rollback
+            if (req.needRollback()) {
+                BigInteger sn = req.getSn().negate();
+                sendBTPMessage(BigInteger.ZERO, net, CSMessage.RESPONSE, sn, msgRes.toBytes());
+            }
+        }
+    }
+
+    /**
+     * Calls the DApp, the failure of the call is returned as the response instead of reverting
+     *
+     * @return response for the request
+     */
+    private CSMessageResponse executeRequest(BigInteger reqId, String net, ProxyRequest req) {
         CSMessageResponse msgRes = null;
         try {
             DAppProxy proxy = new DAppProxy(Address.fromString(req.getTo()));
-            proxy.handleCallMessage(req.getFrom(), req.getData());
+            proxy.handleCallMessage(new BTPAddress(net, req.getFrom()).toString(), req.getData());
             msgRes = new CSMessageResponse(req.getSn(), CSMessageResponse.SUCCESS, "");
         } catch (UserRevertedException e) {
             int code = e.getCode();
@@ -163,13 +381,9 @@ public class CallServiceImpl implements BSH, CallService, FeeManage {
             if (msgRes == null) {
                 msgRes = new CSMessageResponse(req.getSn(), CSMessageResponse.FAILURE, "UnknownFailure");
             }
-            CallExecuted(_reqId, msgRes.getCode(), msgRes.getMsg());
-            // send response only when there was a rollback
-            if (req.needRollback()) {
-                BigInteger sn = req.getSn().negate();
-                sendBTPMessage(BigInteger.ZERO, from.net(), CSMessage.RESPONSE, sn, msgRes.toBytes());
-            }
+            CallExecuted(reqId, msgRes.getCode(), msgRes.getMsg());
         }
+        return msgRes;
     }
 
     @Override
@@ -223,6 +437,9 @@ public class CallServiceImpl implements BSH, CallService, FeeManage {
     @EventLog(indexed=3)
     public void CallMessageSent(Address _from, String _to, BigInteger _sn, BigInteger _nsn) {}
 
+    @EventLog(indexed=3)
+    public void CallMessageDiscarded(Address _from, String _to, BigInteger _sn) {}
+
     /* ========== Interfaces with BMC ========== */
     @Override
     @External
@@ -238,11 +455,36 @@ public class CallServiceImpl implements BSH, CallService, FeeManage {
             case CSMessage.RESPONSE:
                 handleResponse(_from, _sn, msg.getData());
                 break;
+            case CSMessage.BUNDLE:
+                handleBundle(_from, msg.getData());
+                break;
             default:
                 Context.revert("UnknownMsgType(" + msg.getType() + ")");
         }
     }
 
+    @Override
+    @External
+    public void handleFeeChanged(String[] _nets, BigInteger[] _forward, BigInteger[] _response) {
+        onlyBMC();
+        Context.require(_nets.length == _forward.length && _nets.length == _response.length, "InvalidArrayLength");
+        for (int i = 0; i < _nets.length; i++) {
+            relayFees.set(_nets[i], _forward[i]);
+            rollbackRelayFees.set(_nets[i], _response[i]);
+        }
+    }
+
+    @Override
+    @External
+    public void handleFeeRemoved(String[] _nets) {
+        onlyBMC();
+        // the fee is queried to BMC until it's pushed again
+        for (String net : _nets) {
+            relayFees.set(net, null);
+            rollbackRelayFees.set(net, null);
+        }
+    }
+
     @Override
     @External
     public void handleBTPError(String _src, String _svc, BigInteger _sn, long _code, String _msg) {
@@ -266,14 +508,33 @@ public class CallServiceImpl implements BSH, CallService, FeeManage {
         BTPAddress from = new BTPAddress(netFrom, msgReq.getFrom());
         String to = msgReq.getTo();
 
-        BigInteger reqId = getNextReqId();
-        CSMessageRequest req = new CSMessageRequest(from.toString(), to, msgReq.getSn(), msgReq.needRollback(), msgReq.getData());
-        proxyReqs.set(reqId, req);
+        BigInteger reqId = allocateReqIds(1).add(BigInteger.ONE);
+        ProxyRequest req = new ProxyRequest(internNet(netFrom), msgReq.getFrom(), to, msgReq.getSn(),
+                msgReq.needRollback(), msgReq.getData());
+        proxyRequests.set(reqId, req);
 
         // emit event to notify the user
         CallMessage(from.toString(), to, msgReq.getSn(), reqId);
     }
 
+    private void handleBundle(String netFrom, byte[] data) {
+        List<byte[]> requests = CSMessageBundle.fromBytes(data).getRequests();
+        int size = requests.size();
+        BigInteger last = allocateReqIds(size);
+        int net = internNet(netFrom);
+        for (int i = 0; i < size; i++) {
+            CSMessageRequest msgReq = CSMessageRequest.fromBytes(requests.get(i));
+            Context.require(!msgReq.needRollback(), "RollbackInBundle");
+            BTPAddress from = new BTPAddress(netFrom, msgReq.getFrom());
+            String to = msgReq.getTo();
+
+            BigInteger reqId = last.add(BigInteger.valueOf(i + 1));
+            ProxyRequest req = new ProxyRequest(net, msgReq.getFrom(), to, msgReq.getSn(), false, msgReq.getData());
+            proxyRequests.set(reqId, req);
+            CallMessage(from.toString(), to, msgReq.getSn(), reqId);
+        }
+    }
+
     private void handleResponse(String netFrom, BigInteger sn, byte[] data) {
         CSMessageResponse msgRes = CSMessageResponse.fromBytes(data);
         BigInteger resSn = msgRes.getSn();
@@ -295,10 +556,89 @@ public class CallServiceImpl implements BSH, CallService, FeeManage {
                 Context.require(req.getRollback() != null, "NoRollbackData");
                 req.setEnabled();
                 requests.set(resSn, req);
+                pendingRequests.remove(resSn);
                 RollbackMessage(resSn);
         }
     }
 
+    @External(readonly=true)
+    public long getRequestTimeout() {
+        return requestTimeout.getOrDefault(0L);
+    }
+
+    /**
+     * Sets the number of blocks to wait for the response before the request is able to be expired.
+     *
+     * @param _blocks The number of blocks, zero disables the expiry
+     */
+    @External
+    public void setRequestTimeout(long _blocks) {
+        checkCallerOrThrow(admin(), "OnlyAdmin");
+        Context.require(_blocks >= 0, "ValueShouldBePositive");
+        requestTimeout.set(_blocks);
+    }
+
+    /**
+     * Gets the requests which are waiting for the response, in the order of creation.
+     * The requests which are created before the index of pending requests are not included.
+     *
+     * @param _cursor The serial number of the first request, zero for the oldest request
+     * @param _limit The maximum number of requests
+     * @return A dictionary with the list of requests as "requests",
+     * and the serial number of the next request as "next" which is zero if there is no more request.
+     */
+    @External(readonly=true)
+    public Map<String, Object> getPendingRequests(BigInteger _cursor, int _limit) {
+        Context.require(_limit > 0 && _limit <= MAX_PAGE_SIZE, "InvalidLimit");
+        BigInteger sn = _cursor.signum() == 0 ? pendingRequests.getHead() : _cursor;
+        Context.require(sn == null || pendingRequests.contains(sn), "InvalidCursor");
+        List<Map<String, Object>> list = new ArrayList<>();
+        while (sn != null && list.size() < _limit) {
+            CallRequest req = requests.get(sn);
+            list.add(Map.of(
+                    "sn", sn,
+                    "from", req.getFrom(),
+                    "to", req.getTo(),
+                    "height", req.getHeight()));
+            sn = pendingRequests.getNext(sn);
+        }
+        return Map.of(
+                "requests", list,
+                "next", sn == null ? BigInteger.ZERO : sn);
+    }
+
+    /**
+     * Enables the rollback of the requests which are not responded until the timeout, from the oldest.
+     * Like getPendingRequests, the requests which are created before the index of pending requests are not expired.
+     *
+     * @param _limit The maximum number of requests to expire
+     * @return The number of expired requests
+     */
+    @External
+    public int expireRequests(int _limit) {
+        long timeout = getRequestTimeout();
+        Context.require(timeout > 0, "ExpiryDisabled");
+        Context.require(_limit > 0 && _limit <= MAX_PAGE_SIZE, "InvalidLimit");
+        long height = Context.getBlockHeight();
+        int count = 0;
+        BigInteger sn = pendingRequests.getHead();
+        while (sn != null && count < _limit) {
+            CallRequest req = requests.get(sn);
+            // requests are in the order of creation, so the rest are not expired
+            if (req.getHeight() + timeout > height) {
+                break;
+            }
+            BigInteger next = pendingRequests.getNext(sn);
+            pendingRequests.remove(sn);
+            req.setEnabled();
+            requests.set(sn, req);
+            RollbackMessage(sn);
+            count++;
+            sn = next;
+        }
+        return count;
+    }
+
     @External(readonly=true)
     public Address admin() {
         return admin.getOrDefault(Context.getOwner());
@@ -315,7 +655,9 @@ public class CallServiceImpl implements BSH, CallService, FeeManage {
         checkCallerOrThrow(admin(), "OnlyAdmin");
         feeHandler.set(_addr);
         if (_addr != null) {
-            var accruedFees = Context.getBalance(Context.getAddress());
+            // relay fees of the pending bundles are not accrued fees
+            var accruedFees = Context.getBalance(Context.getAddress())
+                    .subtract(totalBundleFee.getOrDefault(BigInteger.ZERO));
             if (accruedFees.signum() > 0) {
                 Context.transfer(_addr, accruedFees);
             }
@@ -344,8 +686,18 @@ public class CallServiceImpl implements BSH, CallService, FeeManage {
         if (_net.isEmpty() || _net.indexOf('/') != -1 || _net.indexOf(':') != -1) {
             Context.revert("InvalidNetworkAddress");
         }
-        BMCScoreInterface bmc = new BMCScoreInterface(this.bmc.get());
-        var relayFee = bmc.getFee(_net, _rollback);
-        return getProtocolFee().add(relayFee);
+        return getProtocolFee().add(getRelayFee(_net, _rollback));
+    }
+
+    /**
+     * Returns the relay fee which is notified by BMC, or queries BMC if it's not notified yet.
+     */
+    private BigInteger getRelayFee(String net, boolean rollback) {
+        BigInteger relayFee = rollback ? rollbackRelayFees.get(net) : relayFees.get(net);
+        if (relayFee == null) {
+            BMCScoreInterface bmc = new BMCScoreInterface(this.bmc.get());
+            relayFee = bmc.getFee(net, rollback);
+        }
+        return relayFee;
     }
 }
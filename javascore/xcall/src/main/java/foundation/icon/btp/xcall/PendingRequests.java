@@ -0,0 +1,96 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.btp.xcall;
+
+import score.Context;
+import score.DictDB;
+import score.VarDB;
+
+import java.math.BigInteger;
+
+/**
+ * Index of the serial numbers of the requests which are waiting for the response, in the order of creation.
+ * It's a doubly linked list, so that a request is added or removed with constant cost.
+ */
+public class PendingRequests {
+    // ZERO is used as the previous of the head, serial number starts from one
+    private final DictDB<BigInteger, BigInteger> prevs;
+    private final DictDB<BigInteger, BigInteger> nexts;
+    private final VarDB<BigInteger> head;
+    private final VarDB<BigInteger> tail;
+
+    public PendingRequests(String id) {
+        this.prevs = Context.newDictDB(id + "Prevs", BigInteger.class);
+        this.nexts = Context.newDictDB(id + "Nexts", BigInteger.class);
+        this.head = Context.newVarDB(id + "Head", BigInteger.class);
+        this.tail = Context.newVarDB(id + "Tail", BigInteger.class);
+    }
+
+    public boolean contains(BigInteger sn) {
+        return prevs.get(sn) != null;
+    }
+
+    /**
+     * @return the oldest serial number, null if empty
+     */
+    public BigInteger getHead() {
+        return head.get();
+    }
+
+    /**
+     * @return the serial number which is added after the given one, null if it's the last
+     */
+    public BigInteger getNext(BigInteger sn) {
+        return nexts.get(sn);
+    }
+
+    public void add(BigInteger sn) {
+        BigInteger last = tail.get();
+        if (last == null) {
+            prevs.set(sn, BigInteger.ZERO);
+            head.set(sn);
+        } else {
+            prevs.set(sn, last);
+            nexts.set(last, sn);
+        }
+        tail.set(sn);
+    }
+
+    /**
+     * @return true if the serial number is removed
+     */
+    public boolean remove(BigInteger sn) {
+        BigInteger prev = prevs.get(sn);
+        if (prev == null) {
+            return false;
+        }
+        BigInteger next = nexts.get(sn);
+        if (prev.signum() == 0) {
+            head.set(next);
+        } else {
+            nexts.set(prev, next);
+        }
+        if (next == null) {
+            tail.set(prev.signum() == 0 ? null : prev);
+        } else {
+            prevs.set(next, prev);
+        }
+        prevs.set(sn, null);
+        nexts.set(sn, null);
+        return true;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.btp.xcall;
+
+import score.ByteArrayObjectWriter;
+import score.Context;
+import score.ObjectReader;
+import score.ObjectWriter;
+
+import java.math.BigInteger;
+
+/**
+ * Stored form of the request from the other network, which is waiting for executeCall.
+ * The source network is stored as an interned id instead of the BTP address of the caller.
+ */
+public class ProxyRequest {
+    private final int net;
+    private final String from;
+    private final String to;
+    private final BigInteger sn;
+    private final boolean rollback;
+    private final byte[] data;
+
+    /**
+     * @param net  interned id of the source network
+     * @param from address of the caller in the source network
+     */
+    public ProxyRequest(int net, String from, String to, BigInteger sn, boolean rollback, byte[] data) {
+        this.net = net;
+        this.from = from;
+        this.to = to;
+        this.sn = sn;
+        this.rollback = rollback;
+        this.data = data;
+    }
+
+    public int getNet() {
+        return net;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public BigInteger getSn() {
+        return sn;
+    }
+
+    public boolean needRollback() {
+        return rollback;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    public static void writeObject(ObjectWriter w, ProxyRequest m) {
+        w.beginList(6);
+        w.write(m.net);
+        w.write(m.from);
+        w.write(m.to);
+        w.write(m.sn);
+        w.write(m.rollback);
+        w.writeNullable(m.data);
+        w.end();
+    }
+
+    public static ProxyRequest readObject(ObjectReader r) {
+        r.beginList();
+        ProxyRequest m = new ProxyRequest(
+                r.readInt(),
+                r.readString(),
+                r.readString(),
+                r.readBigInteger(),
+                r.readBoolean(),
+                r.readNullable(byte[].class)
+        );
+        r.end();
+        return m;
+    }
+
+    public byte[] toBytes() {
+        ByteArrayObjectWriter writer = Context.newByteArrayObjectWriter("RLPn");
+        ProxyRequest.writeObject(writer, this);
+        return writer.toByteArray();
+    }
+
+    public static ProxyRequest fromBytes(byte[] bytes) {
+        ObjectReader reader = Context.newByteArrayObjectReader("RLPn", bytes);
+        return readObject(reader);
+    }
+}
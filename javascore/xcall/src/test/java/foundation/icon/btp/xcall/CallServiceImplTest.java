@@ -20,6 +20,7 @@ import foundation.icon.btp.lib.BTPAddress;
 import foundation.icon.btp.test.BTPIntegrationTest;
 import foundation.icon.btp.test.MockBMCIntegrationTest;
 import foundation.icon.jsonrpc.Address;
+import foundation.icon.jsonrpc.model.TransactionResult;
 import foundation.icon.score.test.AssertRevertedException;
 import foundation.icon.score.test.ScoreIntegrationTest;
 import org.junit.jupiter.api.BeforeAll;
@@ -27,8 +28,11 @@ import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -467,4 +471,160 @@ class CallServiceImplTest implements CSIntegrationTest {
         }));
         callSvc.executeRollback(checker, srcSn);
     }
+
+    @Order(22)
+    @Test
+    void executeCallBatchShouldIsolateFailure() {
+        var from = new BTPAddress(linkNet, sampleAddress.toString());
+        byte[] data = "executeCallBatch".getBytes();
+        // one-way request which succeeds
+        var successSn = getNextSn();
+        var successReq = new CSMessageRequest(from.account(), to.account(), successSn, false, data);
+        MockBMCIntegrationTest.mockBMC.handleBTPMessage(csAddress,
+                linkNet, CallService.NAME, BigInteger.ZERO,
+                new CSMessage(CSMessage.REQUEST, successReq.toBytes()).toBytes());
+        var successReqId = getNextReqId();
+        // request with rollback which fails
+        var failureSn = getNextSn();
+        var failureReq = new CSMessageRequest(from.account(), fakeTo.account(), failureSn, true, data);
+        MockBMCIntegrationTest.mockBMC.handleBTPMessage(csAddress,
+                linkNet, CallService.NAME, failureSn,
+                new CSMessage(CSMessage.REQUEST, failureReq.toBytes()).toBytes());
+        MockBMCIntegrationTest.mockBMC.addResponse(fakeTo.net(), CallService.NAME, failureSn);
+        var failureReqId = getNextReqId();
+
+        Consumer<TransactionResult> checker = (txr) -> {
+            var executed = CallServiceScoreClient.CallExecuted.eventLogs(txr, csAddress, null);
+            assertEquals(2, executed.size());
+            assertEquals(successReqId, executed.get(0).get_reqId());
+            assertEquals(CSMessageResponse.SUCCESS, executed.get(0).get_code());
+            assertEquals(failureReqId, executed.get(1).get_reqId());
+            assertEquals(CSMessageResponse.FAILURE, executed.get(1).get_code());
+        };
+        checker = checker.andThen(MockBMCIntegrationTest.sendMessageEvent((el) -> {
+            assertEquals(linkNet, el.get_to());
+            CSMessage csMessage = CSMessage.fromBytes(el.get_msg());
+            assertEquals(CSMessage.RESPONSE, csMessage.getType());
+            assertEquals(failureSn, CSMessageResponse.fromBytes(csMessage.getData()).getSn());
+        }));
+        // unknown request id is skipped
+        var unknownReqId = successReqId.add(BigInteger.valueOf(1000));
+        callSvc.executeCallBatch(checker, new BigInteger[]{successReqId, failureReqId, unknownReqId});
+    }
+
+    @Order(23)
+    @Test
+    void sendCallMessageShouldBeBundled() {
+        int bundleSize = 2;
+        callSvc._send("setBundleSize", Map.of("_net", linkNet, "_size", bundleSize));
+
+        byte[] data = "sendCallMessageShouldBeBundled".getBytes();
+        Map<String, Object> params = new HashMap<>();
+        params.put("_to", to.toString());
+        params.put("_data", data);
+        BigInteger fee = getFee(to.net(), false);
+        List<BigInteger> sns = new ArrayList<>();
+        for (int i = 0; i < bundleSize; i++) {
+            sns.add(getNextSn());
+            accumulateFee(fee, protocolFee);
+            Consumer<TransactionResult> checker;
+            if (i < bundleSize - 1) {
+                checker = MockBMCIntegrationTest.sendMessageEventShouldNotExists();
+            } else {
+                checker = MockBMCIntegrationTest.sendMessageEvent((el) -> {
+                    assertEquals(linkNet, el.get_to());
+                    assertEquals(BigInteger.ZERO, el.get_sn());
+                    CSMessage csMessage = CSMessage.fromBytes(el.get_msg());
+                    assertEquals(CSMessage.BUNDLE, csMessage.getType());
+                    var requests = CSMessageBundle.fromBytes(csMessage.getData()).getRequests();
+                    assertEquals(bundleSize, requests.size());
+                    for (int j = 0; j < bundleSize; j++) {
+                        var request = new CSMessageRequest(sampleAddress.toString(), to.account(), sns.get(j), false, data);
+                        AssertCallService.assertEqualsCSMessageRequest(request, CSMessageRequest.fromBytes(requests.get(j)));
+                    }
+                }).andThen((txr) -> {
+                    var sent = CallServiceScoreClient.CallMessageSent.eventLogs(txr, csAddress, null);
+                    assertEquals(bundleSize, sent.size());
+                    for (int j = 0; j < bundleSize; j++) {
+                        assertEquals(sns.get(j), sent.get(j).get_sn());
+                    }
+                });
+            }
+            checker.accept(sampleClient._send(fee, "sendMessage", params));
+        }
+        callSvc._send("setBundleSize", Map.of("_net", linkNet, "_size", 0));
+    }
+
+    @Order(24)
+    @Test
+    void handleBTPMessageShouldUnpackBundle() {
+        var from = new BTPAddress(linkNet, sampleAddress.toString());
+        byte[] data = "handleBTPMessageShouldUnpackBundle".getBytes();
+        List<byte[]> requests = new ArrayList<>();
+        List<BigInteger> sns = new ArrayList<>();
+        List<BigInteger> reqIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            var sn = getNextSn();
+            sns.add(sn);
+            reqIds.add(getNextReqId());
+            requests.add(new CSMessageRequest(from.account(), to.account(), sn, false, data).toBytes());
+        }
+        var csMsg = new CSMessage(CSMessage.BUNDLE, new CSMessageBundle(requests).toBytes());
+        Consumer<TransactionResult> checker = (txr) -> {
+            var callMessages = CallServiceScoreClient.CallMessage.eventLogs(txr, csAddress, null);
+            assertEquals(requests.size(), callMessages.size());
+            for (int i = 0; i < requests.size(); i++) {
+                assertEquals(from.toString(), callMessages.get(i).get_from());
+                assertEquals(sns.get(i), callMessages.get(i).get_sn());
+                assertEquals(reqIds.get(i), callMessages.get(i).get_reqId());
+            }
+        };
+        MockBMCIntegrationTest.mockBMC.handleBTPMessage(
+                checker, csAddress,
+                linkNet, CallService.NAME, BigInteger.ZERO, csMsg.toBytes());
+        callSvc.executeCallBatch(reqIds.toArray(new BigInteger[0]));
+    }
+
+    @Order(25)
+    @Test
+    @SuppressWarnings("ThrowableNotThrown")
+    void handleFeeChangedFromInvalidCaller() {
+        Map<String, Object> params = new HashMap<>();
+        params.put("_nets", new String[]{linkNet});
+        params.put("_forward", new BigInteger[]{BigInteger.ZERO});
+        params.put("_response", new BigInteger[]{BigInteger.ZERO});
+        AssertRevertedException.assertUserReverted(0, () ->
+                callSvc._send("handleFeeChanged", params)
+        );
+        assertEquals(forwardFee.add(protocolFee), getFee(linkNet, false));
+    }
+
+    @Order(26)
+    @Test
+    @SuppressWarnings("unchecked")
+    void expireRequestsShouldEnableRollback() {
+        callSvc._send("setRequestTimeout", Map.of("_blocks", BigInteger.ONE));
+        _sendCallMessageWithRollback(BigInteger.ONE);
+
+        Map<String, Object> page = callSvc._call(Map.class, "getPendingRequests",
+                Map.of("_cursor", BigInteger.ZERO, "_limit", BigInteger.valueOf(CallServiceImpl.MAX_PAGE_SIZE)));
+        var pending = (List<Map<String, Object>>) page.get("requests");
+        assertTrue(pending.stream().anyMatch((m) -> srcSn.equals(new BigInteger(((String) m.get("sn")).substring(2), 16))));
+        assertEquals("0x0", page.get("next"));
+
+        var checker = CSIntegrationTest.rollbackMessageEvent((el) -> assertEquals(srcSn, el.get_sn()));
+        checker.accept(callSvc._send("expireRequests",
+                Map.of("_limit", BigInteger.valueOf(CallServiceImpl.MAX_PAGE_SIZE))));
+        callSvc._send("setRequestTimeout", Map.of("_blocks", BigInteger.ZERO));
+
+        page = callSvc._call(Map.class, "getPendingRequests",
+                Map.of("_cursor", BigInteger.ZERO, "_limit", BigInteger.ONE));
+        assertTrue(((List<Object>) page.get("requests")).isEmpty());
+
+        // rollback is executable after expiry
+        callSvc.executeRollback(CSIntegrationTest.rollbackExecutedEvent((el) -> {
+            assertEquals(srcSn, el.get_sn());
+            assertEquals(CSMessageResponse.SUCCESS, el.get_code());
+        }), srcSn);
+    }
 }
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.btp.xcall;
+
+import com.iconloop.score.test.Account;
+import com.iconloop.score.test.Score;
+import com.iconloop.score.test.ServiceManager;
+import com.iconloop.score.test.TestBase;
+import foundation.icon.btp.lib.BTPAddress;
+import foundation.icon.btp.mock.MockBMCImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import score.Context;
+import score.UserRevertedException;
+import score.VarDB;
+import score.annotation.External;
+
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CallServiceUnitTest extends TestBase {
+    static final ServiceManager sm = getServiceManager();
+    static final Account owner = sm.createAccount();
+    static final Account user = sm.createAccount();
+    static final String NET = "0x2.icon";
+    Score bmc;
+    Score xcall;
+    Score dapp;
+
+    public static class CountingDApp {
+        private final VarDB<BigInteger> count = Context.newVarDB("count", BigInteger.class);
+        private final VarDB<String> from = Context.newVarDB("from", String.class);
+
+        @External
+        public void handleCallMessage(String _from, byte[] _data) {
+            count.set(getCount().add(BigInteger.ONE));
+            from.set(_from);
+        }
+
+        @External(readonly = true)
+        public BigInteger getCount() {
+            return count.getOrDefault(BigInteger.ZERO);
+        }
+
+        @External(readonly = true)
+        public String getFrom() {
+            return from.get();
+        }
+    }
+
+    @BeforeEach
+    void setup() throws Exception {
+        bmc = sm.deploy(owner, MockBMCImpl.class, MockBMCImpl.DEFAULT_NET);
+        xcall = sm.deploy(owner, CallServiceImpl.class, bmc.getAddress());
+        dapp = sm.deploy(owner, CountingDApp.class);
+    }
+
+    /**
+     * Delivers the request through the BMC, it's stored as ProxyRequest
+     */
+    void handleRequest(BigInteger sn, boolean rollback) {
+        CSMessageRequest req = new CSMessageRequest(
+                user.getAddress().toString(), dapp.getAddress().toString(), sn, rollback, "data".getBytes());
+        CSMessage msg = new CSMessage(CSMessage.REQUEST, req.toBytes());
+        bmc.invoke(owner, "handleBTPMessage", xcall.getAddress(), NET, CallService.NAME,
+                rollback ? sn : BigInteger.ZERO, msg.toBytes());
+    }
+
+    boolean hasResponse(BigInteger sn) {
+        return (Boolean) bmc.call("hasResponse", NET, CallService.NAME, sn);
+    }
+
+    @Test
+    void executeCallBatchShouldExecuteProxyRequests() {
+        handleRequest(BigInteger.ONE, false);
+        handleRequest(BigInteger.TWO, true);
+        handleRequest(BigInteger.valueOf(3), true);
+        assertTrue(hasResponse(BigInteger.TWO));
+        assertTrue(hasResponse(BigInteger.valueOf(3)));
+
+        // request ids are allocated from one
+        BigInteger[] reqIds = new BigInteger[]{BigInteger.ONE, BigInteger.TWO, BigInteger.valueOf(3)};
+        xcall.invoke(user, "executeCallBatch", (Object) reqIds);
+        assertEquals(BigInteger.valueOf(3), dapp.call("getCount"));
+        assertEquals("btp://" + NET + "/" + user.getAddress(), dapp.call("getFrom"));
+        // responses of the requests with rollback are sent to the source network
+        assertFalse(hasResponse(BigInteger.TWO));
+        assertFalse(hasResponse(BigInteger.valueOf(3)));
+
+        // executed requests are removed
+        xcall.invoke(user, "executeCallBatch", (Object) reqIds);
+        assertEquals(BigInteger.valueOf(3), dapp.call("getCount"));
+        var e = assertThrows(UserRevertedException.class,
+                () -> xcall.invoke(user, "executeCall", BigInteger.ONE));
+        assertTrue(e.getMessage().contains("InvalidRequestId"));
+    }
+
+    @Test
+    void discardBundleShouldRefundFees() {
+        BigInteger fee = BigInteger.TEN;
+        bmc.invoke(owner, "setFee", fee, BigInteger.ZERO);
+        xcall.invoke(owner, "setBundleSize", NET, 3);
+
+        Account sender = sm.createAccount(1);
+        BigInteger balance = sender.getBalance();
+        String to = new BTPAddress(NET, dapp.getAddress().toString()).toString();
+        for (int i = 0; i < 2; i++) {
+            sm.call(sender, fee, xcall.getAddress(), "sendCallMessage", to, "data".getBytes(), null);
+        }
+        assertEquals(2, xcall.call("getPendingBundle", NET));
+        assertEquals(balance.subtract(fee.multiply(BigInteger.TWO)), sender.getBalance());
+
+        var e = assertThrows(UserRevertedException.class,
+                () -> xcall.invoke(sender, "discardBundle", NET));
+        assertTrue(e.getMessage().contains("OnlyAdmin"));
+
+        xcall.invoke(owner, "discardBundle", NET);
+        assertEquals(0, xcall.call("getPendingBundle", NET));
+        assertEquals(balance, sender.getBalance());
+        assertEquals(BigInteger.ZERO, xcall.getAccount().getBalance());
+
+        // nothing to send, so the bundle could be disabled
+        xcall.invoke(owner, "setBundleSize", NET, 0);
+        assertEquals(0, xcall.call("getBundleSize", NET));
+    }
+
+    @Test
+    void pushedFeeShouldBeUsed() {
+        bmc.invoke(owner, "setFee", BigInteger.ONE, BigInteger.ONE);
+        BigInteger forward = BigInteger.valueOf(3);
+        BigInteger response = BigInteger.valueOf(5);
+        bmc.invoke(owner, "handleFeeChanged", xcall.getAddress(),
+                new String[]{NET}, new BigInteger[]{forward}, new BigInteger[]{response});
+        assertEquals(forward, xcall.call("getFee", NET, false));
+        assertEquals(response, xcall.call("getFee", NET, true));
+
+        Account sender = sm.createAccount(1);
+        String to = new BTPAddress(NET, dapp.getAddress().toString()).toString();
+        // the fee of BMC is not enough
+        var e = assertThrows(UserRevertedException.class,
+                () -> sm.call(sender, BigInteger.ONE, xcall.getAddress(),
+                        "sendCallMessage", to, "data".getBytes(), null));
+        assertTrue(e.getMessage().contains("InsufficientFee"));
+        sm.call(sender, forward, xcall.getAddress(), "sendCallMessage", to, "data".getBytes(), null);
+        assertEquals(BigInteger.ONE, bmc.call("getNetworkSn"));
+
+        // only BMC is able to push the fee
+        assertThrows(UserRevertedException.class,
+                () -> xcall.invoke(owner, "handleFeeRemoved", (Object) new String[]{NET}));
+
+        // falls back to the fee of BMC
+        bmc.invoke(owner, "handleFeeRemoved", xcall.getAddress(), new String[]{NET});
+        assertEquals(BigInteger.ONE, xcall.call("getFee", NET, false));
+        assertEquals(BigInteger.TWO, xcall.call("getFee", NET, true));
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.btp.xcall;
+
+import foundation.icon.btp.lib.BTPAddress;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProxyRequestTest {
+    static final BTPAddress from = new BTPAddress("0x1.icon", "hx0000000000000000000000000000000000000001");
+    static final String to = "cx0000000000000000000000000000000000000002";
+    static final BigInteger sn = BigInteger.valueOf(12345);
+    static final byte[] data = "data".getBytes();
+
+    @Test
+    void readWrite() {
+        var req = new ProxyRequest(1, from.account(), to, sn, true, data);
+        var decoded = ProxyRequest.fromBytes(req.toBytes());
+        assertEquals(req.getNet(), decoded.getNet());
+        assertEquals(req.getFrom(), decoded.getFrom());
+        assertEquals(req.getTo(), decoded.getTo());
+        assertEquals(req.getSn(), decoded.getSn());
+        assertEquals(req.needRollback(), decoded.needRollback());
+        assertArrayEquals(req.getData(), decoded.getData());
+    }
+
+    @Test
+    void smallerThanCSMessageRequest() {
+        int legacy = new CSMessageRequest(from.toString(), to, sn, false, data).toBytes().length;
+        int interned = new ProxyRequest(1, from.account(), to, sn, false, data).toBytes().length;
+        System.out.println("CSMessageRequest:" + legacy + " ProxyRequest:" + interned);
+        // "btp://" + net + "/" is replaced by the id which is encoded in one byte
+        int prefix = from.toString().length() - from.account().length();
+        assertTrue(legacy - interned >= prefix - 1);
+    }
+}